@@ -0,0 +1,56 @@
+package frc.crescendo;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.spectrumLib.BenchmarkHal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Alliance flip helpers, used by aiming and zone Triggers every loop */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldBenchmark {
+    @Param({"Blue1", "Red1"})
+    AllianceStationID station;
+
+    private final Pose2d pose = new Pose2d(2, 5, Rotation2d.fromDegrees(30));
+
+    @Setup
+    public void setup() {
+        BenchmarkHal.init();
+        DriverStationSim.setAllianceStationId(station);
+        DriverStationSim.notifyNewData();
+        // Field reads the alliance it cached last loop, refresh it like Robot does
+        Field.updateAlliance();
+    }
+
+    @Benchmark
+    public double flipXifRedDouble() {
+        return Field.flipXifRed(pose.getX());
+    }
+
+    @Benchmark
+    public Pose2d flipXifRedPose() {
+        return Field.flipXifRed(pose);
+    }
+
+    @Benchmark
+    public double flipTrueAngleIfRed() {
+        return Field.flipTrueAngleIfRed(pose.getRotation().getDegrees());
+    }
+
+    @Benchmark
+    public Rotation2d flipAngleIfRed() {
+        return Field.flipAngleIfRed(pose.getRotation());
+    }
+}
@@ -0,0 +1,26 @@
+package frc.spectrumLib;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+
+/**
+ * Starts the simulated HAL once per benchmark fork, for benchmarks that touch code needing it
+ * (DriverStation, CommandScheduler, AddressableLED)
+ */
+public final class BenchmarkHal {
+    private static boolean initialized = false;
+
+    private BenchmarkHal() {}
+
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+        if (!HAL.initialize(500, 0)) {
+            throw new IllegalStateException("Failed to initialize the HAL");
+        }
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.notifyNewData();
+        initialized = true;
+    }
+}
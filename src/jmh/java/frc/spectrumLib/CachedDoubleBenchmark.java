@@ -0,0 +1,37 @@
+package frc.spectrumLib;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Reading a CachedDouble in the same loop (hit) and after the loop advances (miss) */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CachedDoubleBenchmark {
+    private double source = 1;
+    private CachedDouble cached;
+
+    @Setup
+    public void setup() {
+        BenchmarkHal.init();
+        cached = new CachedDouble(() -> source);
+    }
+
+    @Benchmark
+    public double sameLoop() {
+        return cached.getAsDouble();
+    }
+
+    @Benchmark
+    public double newLoop() {
+        LoopEpoch.advance();
+        source++;
+        return cached.getAsDouble();
+    }
+}
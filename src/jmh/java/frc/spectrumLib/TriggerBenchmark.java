@@ -0,0 +1,73 @@
+package frc.spectrumLib;
+
+import edu.wpi.first.wpilibj.event.EventLoop;
+import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Evaluating a Trigger chain shaped like the ones in RobotStates, both as a single read and as an
+ * EventLoop poll with several bindings sharing the same condition
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TriggerBenchmark {
+    private static final int BINDINGS = 10;
+
+    private final EventLoop loop = new EventLoop();
+    private boolean a, b, c, d, e;
+    private int counter = 0;
+    private Trigger chain;
+
+    @Setup
+    public void setup() {
+        BenchmarkHal.init();
+        Trigger pilotIntake = new Trigger(loop, () -> a);
+        Trigger visionIntaking = new Trigger(loop, () -> b);
+        Trigger autonIntake = new Trigger(loop, () -> c);
+        Trigger operatorIntake = new Trigger(loop, () -> d);
+        Trigger hasNote = new Trigger(loop, () -> e);
+        chain =
+                pilotIntake
+                        .or(visionIntaking, autonIntake, operatorIntake)
+                        .and(hasNote.not())
+                        .debounce(0.02);
+        for (int i = 0; i < BINDINGS; i++) {
+            chain.whileTrue(Commands.none());
+        }
+    }
+
+    /** Change the inputs and start a new loop so the chain has to be re-evaluated */
+    private void nextLoop() {
+        counter++;
+        a = (counter & 1) != 0;
+        b = (counter & 2) != 0;
+        e = (counter & 4) != 0;
+        Trigger.invalidateAll();
+    }
+
+    @Benchmark
+    public boolean evaluate() {
+        nextLoop();
+        return chain.getAsBoolean();
+    }
+
+    @Benchmark
+    public boolean memoized() {
+        return chain.getAsBoolean();
+    }
+
+    @Benchmark
+    public void pollBindings() {
+        nextLoop();
+        loop.poll();
+    }
+}
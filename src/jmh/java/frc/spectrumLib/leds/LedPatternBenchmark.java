@@ -0,0 +1,65 @@
+package frc.spectrumLib.leds;
+
+import edu.wpi.first.wpilibj.LEDPattern;
+import edu.wpi.first.wpilibj.util.Color;
+import frc.spectrumLib.BenchmarkHal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Applying each SpectrumLEDs pattern to a full strip, what an LED command does every loop */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LedPatternBenchmark {
+    @Param({"solid", "blink", "breathe", "scrollingRainbow", "chase", "bounce", "ombre", "wave"})
+    String patternName;
+
+    private SpectrumLEDs leds;
+    private LEDPattern pattern;
+
+    @Setup
+    public void setup() {
+        BenchmarkHal.init();
+        leds = new SpectrumLEDs(new SpectrumLEDs.Config("bench", 60));
+        switch (patternName) {
+            case "solid":
+                pattern = leds.solid(Color.kOrange);
+                break;
+            case "blink":
+                pattern = leds.blink(Color.kOrange, 0.5);
+                break;
+            case "breathe":
+                pattern = leds.breathe(Color.kOrange, 1);
+                break;
+            case "scrollingRainbow":
+                pattern = leds.scrollingRainbow();
+                break;
+            case "chase":
+                pattern = leds.chase(Color.kOrange, 0.2, 1);
+                break;
+            case "bounce":
+                pattern = leds.bounce(Color.kOrange, 1);
+                break;
+            case "ombre":
+                pattern = leds.ombre(Color.kOrange, Color.kPurple);
+                break;
+            case "wave":
+                pattern = leds.wave(Color.kOrange, Color.kPurple, 10, 1);
+                break;
+            default:
+                throw new IllegalArgumentException(patternName);
+        }
+    }
+
+    @Benchmark
+    public void applyTo() {
+        pattern.applyTo(leds.getLedView());
+    }
+}
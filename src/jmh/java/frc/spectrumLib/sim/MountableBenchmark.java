@@ -0,0 +1,36 @@
+package frc.spectrumLib.sim;
+
+import frc.spectrumLib.sim.Mount.MountType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Position of a mounted sim mechanism, run for every sim ligament every loop */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MountableBenchmark {
+    private final Mountable mountable = new Mountable() {};
+
+    @Param({"LINEAR", "ARM"})
+    MountType mountType;
+
+    private double angle = 0;
+
+    @Benchmark
+    public void getUpdatedXY(Blackhole blackhole) {
+        angle += 0.01;
+        blackhole.consume(
+                mountable.getUpdatedX(
+                        mountType, 0.5, 0.3, 0.2, 0.1, 0.4, 0.25, 0.15, 0.05, 0.1, angle));
+        blackhole.consume(
+                mountable.getUpdatedY(
+                        mountType, 0.5, 0.3, 0.2, 0.1, 0.4, 0.25, 0.15, 0.05, 0.1, angle));
+    }
+}
@@ -0,0 +1,27 @@
+package frc.spectrumLib.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/** Gamepad stick curve, called for every axis every loop */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpCurveBenchmark {
+    private final ExpCurve curve = new ExpCurve(2, 0, 1, 0.1);
+    private double input = -1;
+
+    @Benchmark
+    public double calculate() {
+        input += 0.01;
+        if (input > 1) {
+            input = -1;
+        }
+        return curve.calculate(input);
+    }
+}
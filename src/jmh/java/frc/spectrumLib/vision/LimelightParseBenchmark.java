@@ -0,0 +1,60 @@
+package frc.spectrumLib.vision;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.spectrumLib.vision.LimelightHelpers.LimelightResults;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing recorded Limelight JSON dumps (src/jmh/resources/limelight), the old way with a new
+ * results object every call and the LimelightIngest way into a reused one
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LimelightParseBenchmark {
+    private static final String NAME = "limelight-bench";
+
+    @Param({"single_tag.json", "multi_tag.json"})
+    String fixture;
+
+    private String json;
+    private final ObjectMapper mapper =
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final LimelightResults reused = new LimelightResults();
+
+    @Setup
+    public void setup() throws IOException {
+        try (InputStream in =
+                LimelightParseBenchmark.class.getResourceAsStream("/limelight/" + fixture)) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + fixture);
+            }
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        NetworkTableInstance.getDefault().getTable(NAME).getEntry("json").setString(json);
+    }
+
+    @Benchmark
+    public LimelightResults getLatestResults() {
+        return LimelightHelpers.getLatestResults(NAME);
+    }
+
+    @Benchmark
+    public LimelightResults parseIntoReused() throws IOException {
+        reused.reset();
+        return mapper.readerForUpdating(reused).readValue(json);
+    }
+}
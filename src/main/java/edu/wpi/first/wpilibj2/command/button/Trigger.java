@@ -10,6 +10,7 @@ import edu.wpi.first.math.filter.Debouncer;
 import edu.wpi.first.wpilibj.event.EventLoop;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.spectrumLib.profiling.LoopProfiler;
 import java.util.function.BooleanSupplier;
 
 /**
@@ -26,10 +27,26 @@ import java.util.function.BooleanSupplier;
  * <p>Spectrum modified in Fall 2024 to allow triggers to default start condition of false, so if
  * something is already true when bound it will activate the trigger. We needed this for a trigger
  * to activate only if Teleop was enabled.
+ *
+ * <p>Spectrum modified in 2025 to time how long each bound condition takes to poll with the
+ * LoopProfiler, under "Trigger/&lt;binding&gt;/&lt;command name&gt;".
+ *
+ * <p>Spectrum modified in 2025 to memoize the condition. Each trigger evaluates its condition at
+ * most once per generation and every binding or composed trigger reads the stored result, so a
+ * condition shared by ten bindings is only computed once a loop. The generation is advanced at the
+ * start of every robot loop by {@link #invalidateAll()} (see LoopEpoch) and whenever a
+ * SpectrumState changes. Triggers whose condition changes during the loop without calling {@link
+ * #invalidateAll()} (ex: PathPlanner EventTriggers set by a path command) will be seen by triggers
+ * polled earlier in the same loop on the next loop. Triggers are only meant to be polled from the
+ * main robot thread.
  */
 public class Trigger implements BooleanSupplier {
+    private static long s_generation = 0;
+
     private final BooleanSupplier m_condition;
     private final EventLoop m_loop;
+    private long m_generation = -1;
+    private boolean m_value = false;
     public static final Trigger kFalse = new Trigger(() -> false);
     public static final Trigger kTrue = new Trigger(() -> true);
 
@@ -65,11 +82,13 @@ public class Trigger implements BooleanSupplier {
         requireNonNullParam(command, "command", "onChange");
         m_loop.bind(
                 new Runnable() {
-                    private boolean m_pressedLast = m_condition.getAsBoolean();
+                    private final LoopProfiler.Section m_profile =
+                            LoopProfiler.section("Trigger/onChange/" + command.getName());
+                    private boolean m_pressedLast = getAsBoolean();
 
                     @Override
                     public void run() {
-                        boolean pressed = m_condition.getAsBoolean();
+                        boolean pressed = poll(m_profile);
 
                         if (m_pressedLast != pressed) {
                             command.schedule();
@@ -91,11 +110,13 @@ public class Trigger implements BooleanSupplier {
         requireNonNullParam(command, "command", "onTrue");
         m_loop.bind(
                 new Runnable() {
+                    private final LoopProfiler.Section m_profile =
+                            LoopProfiler.section("Trigger/onTrue/" + command.getName());
                     private boolean m_pressedLast = false;
 
                     @Override
                     public void run() {
-                        boolean pressed = m_condition.getAsBoolean();
+                        boolean pressed = poll(m_profile);
 
                         if (!m_pressedLast && pressed) {
                             command.schedule();
@@ -117,11 +138,13 @@ public class Trigger implements BooleanSupplier {
         requireNonNullParam(command, "command", "onFalse");
         m_loop.bind(
                 new Runnable() {
+                    private final LoopProfiler.Section m_profile =
+                            LoopProfiler.section("Trigger/onFalse/" + command.getName());
                     private boolean m_pressedLast = true;
 
                     @Override
                     public void run() {
-                        boolean pressed = m_condition.getAsBoolean();
+                        boolean pressed = poll(m_profile);
 
                         if (m_pressedLast && !pressed) {
                             command.schedule();
@@ -147,11 +170,13 @@ public class Trigger implements BooleanSupplier {
         requireNonNullParam(command, "command", "whileTrue");
         m_loop.bind(
                 new Runnable() {
+                    private final LoopProfiler.Section m_profile =
+                            LoopProfiler.section("Trigger/whileTrue/" + command.getName());
                     private boolean m_pressedLast = false;
 
                     @Override
                     public void run() {
-                        boolean pressed = m_condition.getAsBoolean();
+                        boolean pressed = poll(m_profile);
 
                         if (!m_pressedLast && pressed) {
                             command.schedule();
@@ -179,11 +204,13 @@ public class Trigger implements BooleanSupplier {
         requireNonNullParam(command, "command", "whileFalse");
         m_loop.bind(
                 new Runnable() {
+                    private final LoopProfiler.Section m_profile =
+                            LoopProfiler.section("Trigger/whileFalse/" + command.getName());
                     private boolean m_pressedLast = true;
 
                     @Override
                     public void run() {
-                        boolean pressed = m_condition.getAsBoolean();
+                        boolean pressed = poll(m_profile);
 
                         if (m_pressedLast && !pressed) {
                             command.schedule();
@@ -207,11 +234,13 @@ public class Trigger implements BooleanSupplier {
         requireNonNullParam(command, "command", "toggleOnTrue");
         m_loop.bind(
                 new Runnable() {
+                    private final LoopProfiler.Section m_profile =
+                            LoopProfiler.section("Trigger/toggleOnTrue/" + command.getName());
                     private boolean m_pressedLast = false;
 
                     @Override
                     public void run() {
-                        boolean pressed = m_condition.getAsBoolean();
+                        boolean pressed = poll(m_profile);
 
                         if (!m_pressedLast && pressed) {
                             if (command.isScheduled()) {
@@ -237,11 +266,13 @@ public class Trigger implements BooleanSupplier {
         requireNonNullParam(command, "command", "toggleOnFalse");
         m_loop.bind(
                 new Runnable() {
+                    private final LoopProfiler.Section m_profile =
+                            LoopProfiler.section("Trigger/toggleOnFalse/" + command.getName());
                     private boolean m_pressedLast = true;
 
                     @Override
                     public void run() {
-                        boolean pressed = m_condition.getAsBoolean();
+                        boolean pressed = poll(m_profile);
 
                         if (m_pressedLast && !pressed) {
                             if (command.isScheduled()) {
@@ -270,9 +301,33 @@ public class Trigger implements BooleanSupplier {
         return this;
     }
 
+    /**
+     * Mark every trigger's stored value as stale, so the next {@link #getAsBoolean()} re-evaluates
+     * its condition. Called at the start of every robot loop.
+     */
+    public static void invalidateAll() {
+        s_generation++;
+    }
+
+    /** Poll the condition, timing it with the given profiler section */
+    private boolean poll(LoopProfiler.Section profile) {
+        profile.start();
+        boolean value = getAsBoolean();
+        profile.stop();
+        return value;
+    }
+
+    /**
+     * Returns the value of the condition, evaluating it only the first time it is asked for since
+     * the last {@link #invalidateAll()}
+     */
     @Override
     public boolean getAsBoolean() {
-        return m_condition.getAsBoolean();
+        if (m_generation != s_generation) {
+            m_value = m_condition.getAsBoolean();
+            m_generation = s_generation;
+        }
+        return m_value;
     }
 
     /**
@@ -282,35 +337,55 @@ public class Trigger implements BooleanSupplier {
      * @return A trigger which is active when both component triggers are active.
      */
     public Trigger and(BooleanSupplier trigger) {
-        return new Trigger(m_loop, () -> m_condition.getAsBoolean() && trigger.getAsBoolean());
+        return new Trigger(m_loop, () -> getAsBoolean() && trigger.getAsBoolean());
     }
 
     /**
-     * Combines multiple BooleanSupplier triggers using a logical AND operation.
+     * Combines multiple BooleanSupplier triggers using a logical AND operation. The result is a
+     * single trigger that checks each condition in order and stops at the first false one.
      *
      * @param triggers an array of BooleanSupplier triggers to be combined.
      * @return a new Trigger that represents the logical AND of all provided triggers.
      */
     public Trigger and(BooleanSupplier... triggers) {
-        Trigger trig = this;
-        for (BooleanSupplier t : triggers) {
-            trig = trig.and(t);
-        }
-        return trig;
+        final BooleanSupplier[] conditions = triggers.clone();
+        return new Trigger(
+                m_loop,
+                () -> {
+                    if (!getAsBoolean()) {
+                        return false;
+                    }
+                    for (int i = 0; i < conditions.length; i++) {
+                        if (!conditions[i].getAsBoolean()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                });
     }
 
     /**
-     * Combines multiple BooleanSupplier triggers using a logical OR operation.
+     * Combines multiple BooleanSupplier triggers using a logical OR operation. The result is a
+     * single trigger that checks each condition in order and stops at the first true one.
      *
      * @param triggers an array of BooleanSupplier triggers to be combined.
      * @return a new NewTrigger instance that represents the logical OR of the provided triggers.
      */
     public Trigger or(BooleanSupplier... triggers) {
-        Trigger trig = this;
-        for (BooleanSupplier t : triggers) {
-            trig = trig.or(t);
-        }
-        return trig;
+        final BooleanSupplier[] conditions = triggers.clone();
+        return new Trigger(
+                m_loop,
+                () -> {
+                    if (getAsBoolean()) {
+                        return true;
+                    }
+                    for (int i = 0; i < conditions.length; i++) {
+                        if (conditions[i].getAsBoolean()) {
+                            return true;
+                        }
+                    }
+                    return false;
+                });
     }
 
     /**
@@ -320,7 +395,7 @@ public class Trigger implements BooleanSupplier {
      * @return A trigger which is active when either component trigger is active.
      */
     public Trigger or(BooleanSupplier trigger) {
-        return new Trigger(m_loop, () -> m_condition.getAsBoolean() || trigger.getAsBoolean());
+        return new Trigger(m_loop, () -> getAsBoolean() || trigger.getAsBoolean());
     }
 
     /**
@@ -330,7 +405,7 @@ public class Trigger implements BooleanSupplier {
      * @return the negated trigger
      */
     public Trigger negate() {
-        return new Trigger(m_loop, () -> !m_condition.getAsBoolean());
+        return new Trigger(m_loop, () -> !getAsBoolean());
     }
 
     /**
@@ -369,7 +444,7 @@ public class Trigger implements BooleanSupplier {
 
                     @Override
                     public boolean getAsBoolean() {
-                        return m_debouncer.calculate(m_condition.getAsBoolean());
+                        return m_debouncer.calculate(Trigger.this.getAsBoolean());
                     }
                 });
     }
@@ -166,30 +166,153 @@ public class Field {
                         Units.inchesToMeters(161.638),
                         new Rotation2d());
 
+        // Aim angles are set for red, these are the blue ones (see flipAimAngleIfBlue)
         @Getter
         private static final Pose2d ampClimb =
-                new Pose2d(12.265, 5.042, Rotation2d.fromDegrees(Field.flipAimAngleIfBlue(60)));
+                new Pose2d(12.265, 5.042, Rotation2d.fromDegrees(180 - 60));
 
         @Getter
         private static final Pose2d centerClimb =
-                new Pose2d(
-                        ampLeg.getX(),
-                        center.getY(),
-                        Rotation2d.fromDegrees(Field.flipAimAngleIfBlue(180)));
+                new Pose2d(ampLeg.getX(), center.getY(), Rotation2d.fromDegrees(180 - 180));
     }
 
+    /**
+     * Every reference point above for one alliance, built once at startup so nothing is flipped or
+     * allocated while the robot is running. Use {@link Field#getActive()} for our alliance.
+     */
+    public static final class Geometry {
+        @Getter private final boolean red;
+
+        @Getter private final Translation3d topRightSpeaker;
+        @Getter private final Translation3d topLeftSpeaker;
+        @Getter private final Translation3d bottomRightSpeaker;
+        @Getter private final Translation3d bottomLeftSpeaker;
+        @Getter private final Translation3d centerSpeakerOpening;
+        @Getter private final Pose2d centerSpeakerPose;
+
+        @Getter private final Pose2d subwooferAmpFaceCorner;
+        @Getter private final Pose2d subwooferSourceFaceCorner;
+        @Getter private final Pose2d subwooferCenterFace;
+
+        @Getter private final Pose2d podiumLeg;
+        @Getter private final Pose2d ampLeg;
+        @Getter private final Pose2d sourceLeg;
+        @Getter private final Pose2d stageCenter;
+        @Getter private final Pose2d ampClimb;
+        @Getter private final Pose2d centerClimb;
+
+        @Getter private final Translation2d ampCenter;
+        private final Translation2d[] centerlineNotes;
+        private final Translation2d[] spikeNotes;
+
+        private Geometry(boolean red) {
+            this.red = red;
+            topRightSpeaker = mirror(Speaker.getTopRightSpeaker());
+            topLeftSpeaker = mirror(Speaker.getTopLeftSpeaker());
+            bottomRightSpeaker = mirror(Speaker.getBottomRightSpeaker());
+            bottomLeftSpeaker = mirror(Speaker.getBottomLeftSpeaker());
+            centerSpeakerOpening = mirror(Speaker.getCenterSpeakerOpening());
+            centerSpeakerPose = mirror(Speaker.getCenterSpeakerPose());
+
+            subwooferAmpFaceCorner = mirror(Subwoofer.getAmpFaceCorner());
+            subwooferSourceFaceCorner = mirror(Subwoofer.getSourceFaceCorner());
+            subwooferCenterFace = mirror(Subwoofer.getCenterFace());
+
+            podiumLeg = mirror(Stage.getPodiumLeg());
+            ampLeg = mirror(Stage.getAmpLeg());
+            sourceLeg = mirror(Stage.getSourceLeg());
+            stageCenter = mirror(Stage.getCenter());
+            ampClimb = mirror(Stage.getAmpClimb());
+            centerClimb = mirror(Stage.getCenterClimb());
+
+            ampCenter = mirror(Field.getAmpCenter());
+            centerlineNotes = mirror(StagingLocations.centerlineTranslations);
+            spikeNotes = mirror(StagingLocations.spikeTranslations);
+        }
+
+        /** @return the centerline note, 0 is closest to the source side wall */
+        public Translation2d getCenterlineNote(int index) {
+            return centerlineNotes[index];
+        }
+
+        public int getCenterlineNoteCount() {
+            return centerlineNotes.length;
+        }
+
+        /** @return our spike note, 0 is closest to the source side wall */
+        public Translation2d getSpikeNote(int index) {
+            return spikeNotes[index];
+        }
+
+        public int getSpikeNoteCount() {
+            return spikeNotes.length;
+        }
+
+        private double mirror(double x) {
+            return red ? fieldLength - x : x;
+        }
+
+        private Translation2d mirror(Translation2d blue) {
+            return red ? new Translation2d(mirror(blue.getX()), blue.getY()) : blue;
+        }
+
+        private Translation3d mirror(Translation3d blue) {
+            return red ? new Translation3d(mirror(blue.getX()), blue.getY(), blue.getZ()) : blue;
+        }
+
+        private Pose2d mirror(Pose2d blue) {
+            if (!red) {
+                return blue;
+            }
+            Rotation2d rotation = blue.getRotation();
+            Rotation2d heading = new Rotation2d(-rotation.getCos(), rotation.getSin());
+            return new Pose2d(mirror(blue.getX()), blue.getY(), heading);
+        }
+
+        private Translation2d[] mirror(Translation2d[] blue) {
+            Translation2d[] result = new Translation2d[blue.length];
+            for (int i = 0; i < blue.length; i++) {
+                result[i] = mirror(blue[i]);
+            }
+            return result;
+        }
+    }
+
+    @Getter private static final Geometry blueGeometry = new Geometry(false);
+    @Getter private static final Geometry redGeometry = new Geometry(true);
+
+    // Read from the DriverStation once a loop by updateAlliance()
+    private static volatile Geometry active = blueGeometry;
+
     @Getter private static final double aprilTagWidth = Units.inchesToMeters(6.50);
 
+    /**
+     * Check the DriverStation for our alliance and switch the active geometry if it changed. Called
+     * at the start of every loop, everything else reads the cached alliance.
+     */
+    public static void updateAlliance() {
+        boolean red =
+                DriverStation.getAlliance()
+                        .orElse(DriverStation.Alliance.Blue)
+                        .equals(DriverStation.Alliance.Red);
+        if (red != active.isRed()) {
+            active = red ? redGeometry : blueGeometry;
+        }
+    }
+
+    /** The field geometry for our alliance, blue until the DriverStation tells us otherwise */
+    public static Geometry getActive() {
+        return active;
+    }
+
     /** Returns {@code true} if the robot is on the blue alliance. */
     public static boolean isBlue() {
-        return DriverStation.getAlliance()
-                .orElse(DriverStation.Alliance.Blue)
-                .equals(DriverStation.Alliance.Blue);
+        return !active.isRed();
     }
 
     /** Returns {@code true} if the robot is on the red alliance. */
     public static boolean isRed() {
-        return !isBlue();
+        return active.isRed();
     }
 
     public static final Trigger red = new Trigger(() -> isRed());
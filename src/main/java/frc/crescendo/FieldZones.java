@@ -0,0 +1,285 @@
+package frc.crescendo;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+import frc.spectrumLib.LoopEpoch;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Named polygon zones on the field and which ones the robot is in. Membership for every zone is
+ * worked out once per loop from one pose, and each zone's Trigger just checks a bit.
+ *
+ * <p>Alliance zones are drawn for the blue alliance and flipped to the red side when we are red,
+ * field zones stay where they are drawn. The field is split into a grid, each cell knows which
+ * zones cover all of it and which only cover part of it, so only the zones on the edge of the
+ * robot's cell need a point in polygon test. Up to 64 zones.
+ */
+public class FieldZones {
+    private static final double CELL_SIZE = 0.5; // meters
+    private static final int COLUMNS = (int) Math.ceil(Field.getFieldLength() / CELL_SIZE);
+    private static final int ROWS = (int) Math.ceil(Field.getFieldWidth() / CELL_SIZE);
+
+    /** A polygon on the field, corners in blue alliance coordinates */
+    private static class Zone {
+        private final String name;
+        private final boolean alliance;
+        private final double[] xs;
+        private final double[] ys;
+
+        private Zone(String name, boolean alliance, double[] xs, double[] ys) {
+            this.name = name;
+            this.alliance = alliance;
+            this.xs = xs;
+            this.ys = ys;
+        }
+
+        private boolean contains(double x, double y) {
+            // Even-odd ray cast
+            boolean inside = false;
+            for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                if ((ys[i] > y) != (ys[j] > y)
+                        && x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+    }
+
+    private static final ArrayList<Zone> zones = new ArrayList<>();
+    private static Zone[] zoneList = new Zone[0];
+
+    // Per grid cell, zones that cover the whole cell and zones that cover some of it
+    private static long[] fullMask = new long[0];
+    private static long[] partialMask = new long[0];
+    private static long allianceZones = 0;
+
+    private static Supplier<Pose2d> poseSupplier = () -> null;
+    private static long epoch = -1;
+    private static long mask = 0;
+
+    /* Zones used by RobotStates */
+    public static final int SPEAKER =
+            addRectangle("Speaker", true, 0, 0, Field.getHalfLengh() - 1, Field.getFieldWidth());
+    public static final int AMP =
+            addRectangle(
+                    "Amp",
+                    true,
+                    0,
+                    Field.getHalfWidth(),
+                    Field.getHalfLengh() / 2,
+                    Field.getFieldWidth());
+    public static final int WING =
+            addRectangle("Wing", true, 0, 0, Field.getWingX(), Field.getFieldWidth());
+    public static final int STAGE =
+            addZone(
+                    "Stage",
+                    true,
+                    Field.Stage.getPodiumLeg().getX(),
+                    Field.Stage.getPodiumLeg().getY(),
+                    Field.Stage.getAmpLeg().getX(),
+                    Field.Stage.getAmpLeg().getY(),
+                    Field.Stage.getSourceLeg().getX(),
+                    Field.Stage.getSourceLeg().getY());
+    public static final int PODIUM =
+            addRectangle(
+                    "Podium",
+                    true,
+                    Field.getPodiumX() - 1,
+                    Field.Stage.getPodiumLeg().getY() - 1,
+                    Field.getPodiumX(),
+                    Field.Stage.getPodiumLeg().getY() + 1);
+    // Our source is on the far end of the field
+    public static final int SOURCE =
+            addRectangle(
+                    "Source",
+                    true,
+                    Field.getFieldLength() - 2.5,
+                    0,
+                    Field.getFieldLength(),
+                    Field.getHalfWidth() / 2);
+
+    private FieldZones() {}
+
+    /** Where to get the robot's pose, read once per loop */
+    public static void setPoseSupplier(Supplier<Pose2d> supplier) {
+        poseSupplier = supplier;
+    }
+
+    /**
+     * Add a polygon zone
+     *
+     * @param name zone name
+     * @param alliance true if the zone is drawn for blue and should be flipped when red
+     * @param xy corners in blue alliance coordinates, x0, y0, x1, y1, ...
+     * @return the zone's id
+     */
+    public static synchronized int addZone(String name, boolean alliance, double... xy) {
+        if (zones.size() >= Long.SIZE) {
+            throw new IllegalStateException("FieldZones only supports 64 zones, can't add " + name);
+        }
+        if (xy.length < 6 || xy.length % 2 != 0) {
+            throw new IllegalArgumentException("Zone " + name + " needs at least 3 x,y corners");
+        }
+        double[] xs = new double[xy.length / 2];
+        double[] ys = new double[xy.length / 2];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = xy[i * 2];
+            ys[i] = xy[i * 2 + 1];
+        }
+        zones.add(new Zone(name, alliance, xs, ys));
+        int id = zones.size() - 1;
+        if (alliance) {
+            allianceZones |= 1L << id;
+        }
+        buildGrid();
+        return id;
+    }
+
+    /** Add a rectangle zone, see {@link #addZone} */
+    public static int addRectangle(
+            String name, boolean alliance, double minX, double minY, double maxX, double maxY) {
+        return addZone(name, alliance, minX, minY, maxX, minY, maxX, maxY, minX, maxY);
+    }
+
+    /** @return the id of the zone with this name, or -1 */
+    public static synchronized int getId(String name) {
+        for (int i = 0; i < zones.size(); i++) {
+            if (zones.get(i).name.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** True while the robot is in the zone */
+    public static Trigger in(int id) {
+        long bit = 1L << id;
+        return new Trigger(() -> (getMask() & bit) != 0);
+    }
+
+    /** @return a bit for each zone the robot is in this loop, by zone id */
+    public static long getMask() {
+        long current = LoopEpoch.get();
+        if (current != epoch) {
+            epoch = current;
+            Pose2d pose = poseSupplier.get();
+            mask = pose == null ? 0 : compute(pose.getX(), pose.getY(), Field.isRed());
+        }
+        return mask;
+    }
+
+    /** Work out the zones again the next time they are used, the pose was reset this loop */
+    public static void invalidate() {
+        epoch = -1;
+    }
+
+    /** Zone membership for a point in field coordinates */
+    public static long compute(double x, double y, boolean red) {
+        // Field zones are checked where the robot is, alliance zones where it would be on blue
+        long field = lookup(x, y) & ~allianceZones;
+        long alliance = lookup(red ? Field.getFieldLength() - x : x, y) & allianceZones;
+        return field | alliance;
+    }
+
+    private static long lookup(double x, double y) {
+        int column = (int) Math.floor(x / CELL_SIZE);
+        int row = (int) Math.floor(y / CELL_SIZE);
+        if (column < 0 || column >= COLUMNS || row < 0 || row >= ROWS) {
+            return 0;
+        }
+        int cell = row * COLUMNS + column;
+        long result = fullMask[cell];
+        long edges = partialMask[cell];
+        Zone[] list = zoneList;
+        while (edges != 0) {
+            int id = Long.numberOfTrailingZeros(edges);
+            edges &= edges - 1;
+            if (list[id].contains(x, y)) {
+                result |= 1L << id;
+            }
+        }
+        return result;
+    }
+
+    /** Work out which zones touch each cell, done when a zone is added */
+    private static void buildGrid() {
+        zoneList = zones.toArray(new Zone[0]);
+        long[] full = new long[COLUMNS * ROWS];
+        long[] partial = new long[COLUMNS * ROWS];
+        for (int id = 0; id < zoneList.length; id++) {
+            Zone zone = zoneList[id];
+            for (int row = 0; row < ROWS; row++) {
+                for (int column = 0; column < COLUMNS; column++) {
+                    int covered = countCorners(zone, column, row);
+                    boolean crosses = crossesCell(zone, column, row);
+                    int cell = row * COLUMNS + column;
+                    if (covered == 4 && !crosses) {
+                        full[cell] |= 1L << id;
+                    } else if (covered > 0 || crosses) {
+                        partial[cell] |= 1L << id;
+                    }
+                }
+            }
+        }
+        fullMask = full;
+        partialMask = partial;
+    }
+
+    private static int countCorners(Zone zone, int column, int row) {
+        double minX = column * CELL_SIZE;
+        double minY = row * CELL_SIZE;
+        int count = 0;
+        for (int i = 0; i < 4; i++) {
+            double x = minX + (i % 2) * CELL_SIZE;
+            double y = minY + (i / 2) * CELL_SIZE;
+            if (zone.contains(x, y)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // True if any of the zone's corners are in the cell or any of its edges cross the cell's edges
+    private static boolean crossesCell(Zone zone, int column, int row) {
+        double minX = column * CELL_SIZE;
+        double minY = row * CELL_SIZE;
+        double maxX = minX + CELL_SIZE;
+        double maxY = minY + CELL_SIZE;
+        for (int i = 0, j = zone.xs.length - 1; i < zone.xs.length; j = i++) {
+            double x1 = zone.xs[j], y1 = zone.ys[j], x2 = zone.xs[i], y2 = zone.ys[i];
+            if (x1 >= minX && x1 <= maxX && y1 >= minY && y1 <= maxY) {
+                return true;
+            }
+            if (segmentsCross(x1, y1, x2, y2, minX, minY, maxX, minY)
+                    || segmentsCross(x1, y1, x2, y2, maxX, minY, maxX, maxY)
+                    || segmentsCross(x1, y1, x2, y2, maxX, maxY, minX, maxY)
+                    || segmentsCross(x1, y1, x2, y2, minX, maxY, minX, minY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean segmentsCross(
+            double ax,
+            double ay,
+            double bx,
+            double by,
+            double cx,
+            double cy,
+            double dx,
+            double dy) {
+        double d1 = cross(cx, cy, dx, dy, ax, ay);
+        double d2 = cross(cx, cy, dx, dy, bx, by);
+        double d3 = cross(ax, ay, bx, by, cx, cy);
+        double d4 = cross(ax, ay, bx, by, dx, dy);
+        return ((d1 > 0) != (d2 > 0) || d1 == 0 || d2 == 0)
+                && ((d3 > 0) != (d4 > 0) || d3 == 0 || d4 == 0);
+    }
+
+    private static double cross(double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+}
@@ -0,0 +1,178 @@
+package frc.robot;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.util.Histogram;
+
+/**
+ * Runs an auton in simulation without a GUI or driver station, in real time, and reports how it
+ * did: whether it finished, how long each loop took and where the robot ended up. It is a check
+ * for CI, not a fast or repeatable simulator.
+ *
+ * <p>The HAL clock is paused and stepped one robot loop at a time with {@link
+ * SimHooks#stepTiming}, so the robot loop and WPILib Notifiers run exactly once per step. The
+ * Phoenix sim devices and the swerve odometry thread run on the real clock and can't be stepped,
+ * so each step waits out the rest of its real 20ms. Running faster would leave the drivetrain
+ * behind the robot code, and thread timing makes two runs differ slightly.
+ *
+ * <p>Exits with 1 if the robot code crashed or the auton didn't finish in time, so CI can fail the
+ * build.
+ *
+ * <p>Started from Main when the SPECTRUM_HEADLESS_SIM environment variable is set to the name of
+ * the auton to run (ex: "Madtown"). SPECTRUM_HEADLESS_SIM_SECONDS sets how long to run it for,
+ * default 15. From gradle: {@code ./gradlew simulateJava -Pheadless -Pauton="Madtown"}
+ */
+public final class HeadlessSim {
+    public static final String AUTON_ENV = "SPECTRUM_HEADLESS_SIM";
+    public static final String SECONDS_ENV = "SPECTRUM_HEADLESS_SIM_SECONDS";
+
+    private static final double DISABLED_SECONDS = 1; // let the robot settle before enabling
+    private static int overBudgetLoops = 0;
+
+    /* Written by the robot thread every loop, the harness only reads them */
+    private static volatile Pose2d pose = new Pose2d();
+    private static volatile boolean autonFinished = false;
+    private static volatile Throwable crash = null;
+
+    private HeadlessSim() {}
+
+    public static boolean isRequested() {
+        String auton = System.getenv(AUTON_ENV);
+        return auton != null && !auton.isEmpty();
+    }
+
+    public static void run() {
+        String auton = System.getenv(AUTON_ENV);
+        double seconds = 15;
+        String secondsEnv = System.getenv(SECONDS_ENV);
+        if (secondsEnv != null && !secondsEnv.isEmpty()) {
+            seconds = Double.parseDouble(secondsEnv);
+        }
+
+        if (!HAL.initialize(500, 0)) {
+            throw new IllegalStateException("Failed to initialize the HAL");
+        }
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+
+        Robot robot = new Robot();
+        // Read the robot's state on its own thread, after each loop
+        robot.addPeriodic(HeadlessSim::sample, TimedRobot.kDefaultPeriod);
+        Thread robotThread = new Thread(robot::startCompetition, "HeadlessRobot");
+        robotThread.setDaemon(true);
+        robotThread.setUncaughtExceptionHandler((thread, t) -> crash = t);
+        robotThread.start();
+
+        // Select the auton the same way the dashboard does
+        NetworkTableInstance.getDefault()
+                .getEntry("/SmartDashboard/Auto Chooser/selected")
+                .setString(auton);
+        step(DISABLED_SECONDS, null);
+
+        Telemetry.print("### Headless sim running " + auton + " for " + seconds + "s ###");
+        DriverStationSim.setAutonomous(true);
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+
+        Histogram loopNanos = new Histogram(1_000, 1_000_000_000, 4);
+        long start = System.nanoTime();
+        int loops = step(seconds, loopNanos);
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        boolean finished = autonFinished;
+
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        step(TimedRobot.kDefaultPeriod, null);
+
+        report(auton, loops, wallSeconds, loopNanos, pose);
+        boolean crashed = crash != null || !robotThread.isAlive();
+        if (crashed) {
+            Telemetry.print("### Headless sim FAILED: robot code crashed: " + crash + " ###");
+        } else if (!finished) {
+            Telemetry.print(
+                    String.format(
+                            "### Headless sim FAILED: %s didn't finish in %.1fs ###",
+                            auton, seconds));
+        }
+        robot.endCompetition();
+        System.exit(crashed || !finished ? 1 : 0);
+    }
+
+    /**
+     * Step the simulation one robot loop at a time, paced to real time
+     *
+     * @param seconds how much sim time to run
+     * @param loopNanos records the real time each loop took, can be null
+     * @return number of loops run
+     */
+    private static int step(double seconds, Histogram loopNanos) {
+        long budgetNanos = (long) (TimedRobot.kDefaultPeriod * 1e9);
+        int loops = (int) Math.round(seconds / TimedRobot.kDefaultPeriod);
+        for (int i = 0; i < loops; i++) {
+            long loopStart = System.nanoTime();
+            SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+            long elapsed = System.nanoTime() - loopStart;
+            if (loopNanos != null) {
+                loopNanos.record(elapsed);
+                if (elapsed > budgetNanos) {
+                    overBudgetLoops++;
+                }
+                // Give the auton a few loops to get scheduled before checking if it's done
+                if (i > 5 && autonFinished) {
+                    return i + 1;
+                }
+            }
+            // Phoenix simulates on the real clock, don't get ahead of it
+            long remaining = budgetNanos - elapsed;
+            if (remaining > 0) {
+                try {
+                    Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return i + 1;
+                }
+            }
+        }
+        return loops;
+    }
+
+    // Runs on the robot thread once a loop, so nothing here races the robot code
+    private static void sample() {
+        pose = Robot.getSwerve().getRobotPose();
+        if (DriverStation.isAutonomousEnabled()) {
+            Command command = Robot.getAuton().getAutonCommand();
+            autonFinished = command != null && !command.isScheduled();
+        }
+    }
+
+    private static void report(
+            String auton, int loops, double wallSeconds, Histogram loopNanos, Pose2d pose) {
+        double simSeconds = loops * TimedRobot.kDefaultPeriod;
+        Telemetry.print("### Headless sim report: " + auton + " ###");
+        Telemetry.print(
+                String.format(
+                        "Ran %d loops, %.2fs sim time in %.2fs real time",
+                        loops, simSeconds, wallSeconds));
+        Telemetry.print(
+                String.format(
+                        "Loop time ms p50 %.3f p99 %.3f max %.3f, %d over the %.0fms budget",
+                        loopNanos.getPercentile(0.5) / 1e6,
+                        loopNanos.getPercentile(0.99) / 1e6,
+                        loopNanos.getMax() / 1e6,
+                        overBudgetLoops,
+                        TimedRobot.kDefaultPeriod * 1000));
+        Telemetry.print(
+                String.format(
+                        "Final pose x %.3f y %.3f heading %.1f",
+                        pose.getX(), pose.getY(), pose.getRotation().getDegrees()));
+    }
+}
@@ -10,6 +10,10 @@ public final class Main {
     private Main() {}
 
     public static void main(String... args) {
+        if (HeadlessSim.isRequested()) {
+            HeadlessSim.run();
+            return;
+        }
         RobotBase.startRobot(Robot::new);
     }
 }
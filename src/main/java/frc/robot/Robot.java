@@ -1,9 +1,11 @@
 package frc.robot;
 
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.crescendo.Field;
+import frc.robot.aiming.AimingSolver;
+import frc.robot.aiming.ShotMap;
 import frc.robot.amptrap.AmpTrap;
 import frc.robot.amptrap.AmpTrap.AmpTrapConfig;
 import frc.robot.auton.Auton;
@@ -34,13 +36,22 @@ import frc.spectrumLib.Rio;
 import frc.spectrumLib.SpectrumRobot;
 import frc.spectrumLib.Telemetry;
 import frc.spectrumLib.Telemetry.PrintPriority;
+import frc.spectrumLib.profiling.LoopProfiler;
+import frc.spectrumLib.signals.CanBusMonitor;
+import frc.spectrumLib.signals.SignalRates;
+import frc.spectrumLib.signals.SignalRegistry;
+import frc.spectrumLib.talonFX.DeviceBringup;
 import frc.spectrumLib.util.CrashTracker;
+import frc.spectrumLib.vision.Limelight.LimelightConfig;
 import lombok.Getter;
 
 public class Robot extends SpectrumRobot {
     @Getter private static RobotSim robotSim;
     @Getter private static Config config;
     private static Telemetry telemetry = new Telemetry();
+    private static final LoopProfiler.Section loopProfile = LoopProfiler.section("Robot/loop");
+    private static final LoopProfiler.Section schedulerProfile =
+            LoopProfiler.section("Robot/scheduler");
 
     // TODO: Create robot faults
     public enum RobotFault {
@@ -59,6 +70,22 @@ public class Robot extends SpectrumRobot {
         public LedFullConfig leds = new LedFullConfig();
         public PilotConfig pilot = new PilotConfig();
         public OperatorConfig operator = new OperatorConfig();
+
+        /**
+         * Limelights on the robot, names must match the Limelight dashboard. These are placeholders
+         * until the real names and mounts are known, so they stay detached and vision only uses the
+         * simulated camera.
+         */
+        public LimelightConfig[] limelights = {
+            new LimelightConfig("limelight-speaker")
+                    .withTranslation(0.27, 0, 0.26)
+                    .withRotation(0, 27, 0)
+                    .setAttached(false),
+            new LimelightConfig("limelight-rear")
+                    .withTranslation(-0.27, 0, 0.26)
+                    .withRotation(0, 27, 180)
+                    .setAttached(false),
+        };
     }
 
     @Getter private static Swerve swerve;
@@ -73,7 +100,11 @@ public class Robot extends SpectrumRobot {
     @Getter private static Pilot pilot;
     @Getter private static Pivot pivot;
     @Getter private static VisionSystem visionSystem;
+    @Getter private static CanBusMonitor canBusMonitor;
+    @Getter private static ShotMap shotMap;
+    @Getter private static AimingSolver aimingSolver;
     @Getter private static Auton auton;
+    @Getter private static WarmupService warmupService;
 
     public Robot() {
         super();
@@ -101,28 +132,35 @@ public class Robot extends SpectrumRobot {
              * code. Anything with an output that needs to be independently controlled is a
              * subsystem Something that don't have an output are also subsystems.
              */
-            double canInitDelay = 0.1; // Delay between any mechanism with motor/can configs
-
             leds = new LedFull(config.leds);
             operator = new Operator(config.operator);
             pilot = new Pilot(config.pilot);
             swerve = new Swerve(config.swerve);
-            Timer.delay(canInitDelay);
+            shotMap = new ShotMap();
+            aimingSolver = new AimingSolver(swerve, shotMap);
             elevator = new Elevator(config.elevator);
-            Timer.delay(canInitDelay);
             pivot = new Pivot(config.pivot);
-            Timer.delay(canInitDelay);
             ampTrap = new AmpTrap(config.ampTrap);
-            Timer.delay(canInitDelay);
             climber = new Climber(config.climber);
-            Timer.delay(canInitDelay);
             feeder = new Feeder(config.feeder);
-            Timer.delay(canInitDelay);
             intake = new Intake(config.intake);
-            Timer.delay(canInitDelay);
             launcher = new Launcher(config.launcher);
+            // Every mechanism's Talons and CANcoders are configured in parallel, wait for them here
+            DeviceBringup.awaitAll(2.0);
+            // Slow every signal down to its disabled rate and turn off the ones we don't read
+            SignalRates.optimize();
             auton = new Auton();
-            visionSystem = new VisionSystem(swerve::getRobotPose);
+            visionSystem =
+                    new VisionSystem(
+                            config.limelights,
+                            swerve::getRobotPose,
+                            swerve::addVisionMeasurement,
+                            swerve.getPoseHistory(),
+                            swerve::getSimPose);
+            canBusMonitor = new CanBusMonitor();
+            // Compile the enabled-only code while we wait to be enabled
+            warmupService = new WarmupService(config.swerve, swerve, shotMap);
+            warmupService.start();
 
             // Setup Default Commands for all subsystems
             setupDefaultCommands();
@@ -166,6 +204,30 @@ public class Robot extends SpectrumRobot {
     @Override // Deprecated
     public void robotInit() {}
 
+    /**
+     * Runs at the top of every loop, after the LoopEpoch advances and before the mode's init and
+     * periodic methods, so they see this loop's values too
+     */
+    @Override
+    protected void loopStart() {
+        try {
+            loopProfile.start();
+
+            /** Pick up an alliance change before anything reads the field geometry */
+            Field.updateAlliance();
+
+            /**
+             * Refresh every registered StatusSignal in one batched call per CAN bus, so the
+             * mechanisms read this loop's values without making their own CAN calls.
+             */
+            SignalRegistry.refreshAll();
+        } catch (Throwable t) {
+            // intercept error and log it
+            CrashTracker.logThrowableCrash(t);
+            throw t;
+        }
+    }
+
     /* ROBOT PERIODIC  */
     /**
      * This method is called periodically the entire time the robot is running. Periodic methods are
@@ -176,15 +238,23 @@ public class Robot extends SpectrumRobot {
     @Override
     public void robotPeriodic() {
         try {
+            warmupService.loopStarted();
+
             /**
              * Runs the Scheduler. This is responsible for polling buttons, adding newly-scheduled
              * commands, running already-scheduled commands, removing finished or interrupted
              * commands, and running subsystem periodic() methods. This must be called from the
              * robot's periodic block in order for anything in the Command-based framework to work.
              */
+            schedulerProfile.start();
             CommandScheduler.getInstance().run();
+            schedulerProfile.stop();
 
             SmartDashboard.putNumber("MatchTime", DriverStation.getMatchTime());
+
+            /** Publish the section timings every so often, see LoopProfiler */
+            loopProfile.stop();
+            LoopProfiler.endLoop();
         } catch (Throwable t) {
             // intercept error and log it
             CrashTracker.logThrowableCrash(t);
@@ -196,12 +266,15 @@ public class Robot extends SpectrumRobot {
     public void disabledInit() {
         Telemetry.print("### Disabled Init Starting ### ");
         resetCommandsAndButtons();
+        SignalRates.setEnabled(false);
 
         Telemetry.print("### Disabled Init Complete ### ");
     }
 
     @Override
-    public void disabledPeriodic() {}
+    public void disabledPeriodic() {
+        auton.disabledPeriodic();
+    }
 
     @Override
     public void disabledExit() {
@@ -221,6 +294,7 @@ public class Robot extends SpectrumRobot {
         try {
             Telemetry.print("@@@ Auton Init Starting @@@ ");
             clearCommandsAndButtons();
+            SignalRates.setEnabled(true);
 
             auton.init();
 
@@ -246,6 +320,7 @@ public class Robot extends SpectrumRobot {
         try {
             Telemetry.print("!!! Teleop Init Starting !!! ");
             resetCommandsAndButtons();
+            SignalRates.setEnabled(true);
 
             Telemetry.print("!!! Teleop Init Complete !!! ");
         } catch (Throwable t) {
@@ -278,6 +353,7 @@ public class Robot extends SpectrumRobot {
 
             Telemetry.print("~~~ Test Init Starting ~~~ ");
             resetCommandsAndButtons();
+            SignalRates.setEnabled(true);
 
             Telemetry.print("~~~ Test Init Complete ~~~ ");
         } catch (Throwable t) {
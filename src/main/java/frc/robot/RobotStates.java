@@ -4,7 +4,7 @@ import static frc.robot.auton.Auton.*;
 
 import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
-import frc.crescendo.Field;
+import frc.crescendo.FieldZones;
 import frc.robot.operator.Operator;
 import frc.robot.pilot.Pilot;
 import frc.robot.swerve.Swerve;
@@ -33,15 +33,19 @@ public class RobotStates {
             pilot.intake_A.or(visionIntaking, autonIntake, operator.intake_A);
     public static final Trigger ejecting = pilot.eject_fA.or(operator.eject_fA);
 
-    public static final Trigger ampZone =
-            swerve.inXzoneAlliance(0, Field.getHalfLengh() / 2)
-                    .and(swerve.inYzone(Field.getHalfWidth(), Field.getFieldWidth()));
+    public static final Trigger ampZone = FieldZones.in(FieldZones.AMP);
 
-    public static final Trigger score = pilot.score_RB;
-
-    public static final Trigger speakerZone = swerve.inXzoneAlliance(0, Field.getHalfLengh() - 1);
+    public static final Trigger speakerZone = FieldZones.in(FieldZones.SPEAKER);
     public static final Trigger speakerPrep = pilot.launchPrep_RT.and(speakerZone);
 
+    /** Facing the virtual target of the speaker shot, see AimingSolver */
+    public static final Trigger speakerAimed = Robot.getAimingSolver().aimed;
+
+    // Speaker shots wait until we are aimed, then keep scoring until the button is released so
+    // losing aim mid-shot doesn't stop the feeder and launcher, see scoring in setupStates()
+    public static final SpectrumState scoring = new SpectrumState("scoring");
+    public static final Trigger score = pilot.score_RB.and(scoring);
+
     public static final Trigger subwooferPrep = pilot.subwooferPrep_fRT;
     public static final Trigger feedPrep = pilot.launchPrep_RT.and(speakerZone.not());
 
@@ -61,6 +65,10 @@ public class RobotStates {
     public static void setupStates() {
         pilot.coastOn_dB.and(sim.not()).onTrue(coastMode.setTrue());
         pilot.coastOff_dA.and(sim.not()).onTrue(coastMode.setFalse());
+
+        pilot.score_RB.and(speakerPrep.not().or(speakerAimed)).onTrue(scoring.setTrue());
+        // Clear it even if the robot is disabled with the button held
+        pilot.score_RB.onFalse(scoring.setFalse().ignoringDisable(true));
     }
 
     private RobotStates() {
@@ -0,0 +1,252 @@
+package frc.robot;
+
+import com.ctre.phoenix6.swerve.SwerveRequest.SwerveControlParameters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.commands.PathPlannerAuto;
+import com.pathplanner.lib.config.PIDConstants;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.aiming.ShotMap;
+import frc.robot.auton.AutonCache;
+import frc.robot.swerve.SetpointGenerator;
+import frc.robot.swerve.Swerve;
+import frc.robot.swerve.SwerveConfig;
+import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.util.Histogram;
+import frc.spectrumLib.vision.LimelightHelpers.LimelightResults;
+import frc.spectrumLib.vision.LimelightIngest;
+import java.io.IOException;
+import java.util.ArrayList;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Runs the code that only gets busy once the robot is enabled while it is still disabled, so the
+ * JIT has compiled it before the first auton loop instead of interpreting it then. A low priority
+ * background thread repeats, against its own copies so nothing reaches the robot:
+ *
+ * <ul>
+ *   <li>the pilot's drive math, on a separate {@link SetpointGenerator} that is never applied to
+ *       any modules
+ *   <li>PathPlanner trajectory generation and following for every auto's paths, both alliances,
+ *       with a separate path controller
+ *   <li>{@link ShotMap} lookups
+ *   <li>Limelight JSON parsing, with its own mapper and results
+ * </ul>
+ *
+ * <p>Triggers and default commands aren't repeated here, the scheduler already runs them every
+ * disabled loop. The thread pauses while enabled and stops after {@link #targetIterations}. The
+ * main loop times the first loops after each enable and reports them with the number of warm-up
+ * iterations that had run.
+ */
+public class WarmupService {
+    private static final int BATCH = 100; // iterations between naps, leaves the CPU for the loop
+    private static final long NAP_MS = 2;
+    private static final long ENABLED_SLEEP_MS = 100;
+    private static final int TRAJECTORY_PERIOD = 50; // iterations between trajectory generations
+    private static final double ODOMETRY_PERIOD = 0.004;
+    private static final int FIRST_LOOPS = 50;
+
+    /** A Limelight dump with a couple of tags, the fields we read plus some we don't */
+    private static final String SAMPLE_JSON =
+            "{\"pID\":0,\"tl\":18.5,\"cl\":11.2,\"ts\":123456.7,\"v\":1,"
+                    + "\"botpose\":[1.2,-2.3,0,0,0,45],"
+                    + "\"botpose_wpiblue\":[9.4,1.8,0,0,0,45],"
+                    + "\"botpose_wpired\":[7.1,6.4,0,0,0,-135],"
+                    + "\"botpose_tagcount\":2,\"botpose_span\":0.56,"
+                    + "\"botpose_avgdist\":3.1,\"botpose_avgarea\":0.12,"
+                    + "\"t6c_rs\":[0.3,0,0.2,0,-20,180],"
+                    + "\"Fiducial\":[{\"fID\":7,\"fam\":\"36H11C\",\"ta\":0.13,\"tx\":4.2,"
+                    + "\"ty\":-3.1,\"t6r_fs\":[9.4,1.8,0,0,0,45],\"t6t_rs\":[0.1,0.2,3,0,0,0]},"
+                    + "{\"fID\":8,\"fam\":\"36H11C\",\"ta\":0.11,\"tx\":-6.8,\"ty\":-2.9,"
+                    + "\"t6r_fs\":[9.3,1.9,0,0,0,44],\"t6t_rs\":[-0.4,0.2,3.2,0,0,0]}],"
+                    + "\"Retro\":[],\"Classifier\":[],\"Detector\":[],\"Barcode\":[]}";
+
+    /** Stop warming up after this many iterations */
+    @Getter @Setter private volatile int targetIterations = 20000;
+
+    /** Iterations run so far */
+    @Getter private volatile int iterations = 0;
+
+    /* Only touched by the warm-up thread */
+    private final SetpointGenerator drive;
+    private final SwerveControlParameters driveParameters = new SwerveControlParameters();
+    private final ShotMap shotMap;
+    private final RobotConfig robotConfig;
+    private final PPHolonomicDriveController follower =
+            new PPHolonomicDriveController(
+                    new PIDConstants(5, 0, 0), new PIDConstants(5, 0, 0), Robot.kDefaultPeriod);
+    private final ArrayList<PathPlannerPath> paths = new ArrayList<>();
+    private final ArrayList<PathPlannerTrajectory> trajectories = new ArrayList<>();
+    private final ObjectMapper mapper = LimelightIngest.newMapper();
+    private final LimelightResults results = new LimelightResults();
+    private double sink = 0; // keeps the JIT from dropping work whose result isn't used
+
+    /* Only touched by the robot loop */
+    private final Histogram firstLoopMs = new Histogram(1, 1000, 4);
+    private boolean wasEnabled = false;
+    private long lastLoopNanos = 0;
+    private int firstLoopsLeft = 0;
+    private int overruns = 0;
+    private int iterationsAtEnable = 0;
+
+    public WarmupService(SwerveConfig config, Swerve swerve, ShotMap shotMap) {
+        robotConfig = swerve.getRobotConfig();
+        drive = new SetpointGenerator(config, robotConfig, swerve.getModuleLocations());
+        this.shotMap = shotMap;
+    }
+
+    /** Start warming up in the background, it only runs while the robot is disabled */
+    public void start() {
+        Thread thread = new Thread(this::run, "Warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /** Called at the start of every robot loop, times the first loops after the robot enables */
+    public void loopStarted() {
+        long now = System.nanoTime();
+        boolean enabled = DriverStation.isEnabled();
+        if (enabled && !wasEnabled) {
+            // The loop before this one ran the mode's init, so it counts too
+            firstLoopsLeft = FIRST_LOOPS;
+            firstLoopMs.reset();
+            overruns = 0;
+            iterationsAtEnable = iterations;
+        }
+        wasEnabled = enabled;
+
+        if (firstLoopsLeft > 0 && lastLoopNanos != 0) {
+            double millis = (now - lastLoopNanos) * .000001;
+            firstLoopMs.record(millis);
+            if (millis > Robot.kDefaultPeriod * 1000 * 1.1) {
+                overruns++;
+            }
+            if (--firstLoopsLeft == 0) {
+                reportFirstLoops();
+            }
+        }
+        lastLoopNanos = now;
+    }
+
+    private void reportFirstLoops() {
+        Telemetry.log("Warmup/firstLoops/maxMs", firstLoopMs.getMax());
+        Telemetry.log("Warmup/firstLoops/meanMs", firstLoopMs.getMean());
+        Telemetry.log("Warmup/firstLoops/overruns", overruns);
+        Telemetry.log("Warmup/firstLoops/iterations", iterationsAtEnable);
+        Telemetry.print(
+                String.format(
+                        "First %d loops enabled: max %.1f ms, mean %.1f ms, %d overruns,"
+                                + " after %d warm-up iterations",
+                        FIRST_LOOPS,
+                        firstLoopMs.getMax(),
+                        firstLoopMs.getMean(),
+                        overruns,
+                        iterationsAtEnable));
+    }
+
+    private void run() {
+        loadPaths();
+        double start = Timer.getFPGATimestamp();
+        while (iterations < targetIterations) {
+            if (!DriverStation.isDisabled()) {
+                sleep(ENABLED_SLEEP_MS);
+                continue;
+            }
+            try {
+                iterate(iterations);
+            } catch (Exception e) {
+                Telemetry.print("Warmup stopped: " + e);
+                break;
+            }
+            iterations++;
+            if (iterations % BATCH == 0) {
+                Telemetry.log("Warmup/iterations", iterations);
+                sleep(NAP_MS);
+            }
+        }
+        Telemetry.log("Warmup/iterations", iterations);
+        Telemetry.print(
+                String.format(
+                        "Warmup ran %d iterations in %.1f s",
+                        iterations, Timer.getFPGATimestamp() - start));
+    }
+
+    // Every auto's paths, and their red alliance versions
+    private void loadPaths() {
+        for (String name : AutonCache.findAutos()) {
+            try {
+                for (PathPlannerPath path : PathPlannerAuto.getPathGroupFromAutoFile(name)) {
+                    paths.add(path);
+                    paths.add(path.flipPath());
+                }
+            } catch (Exception e) {
+                Telemetry.print("Warmup failed to load " + name + ": " + e.getMessage());
+            }
+        }
+        for (PathPlannerPath path : paths) {
+            trajectories.add(generate(path));
+        }
+    }
+
+    private void iterate(int i) throws IOException {
+        // Sweep the sticks around so every branch of the drive math gets used
+        double t = i * 0.01;
+        driveParameters.timestamp += ODOMETRY_PERIOD;
+        driveParameters.updatePeriod = ODOMETRY_PERIOD;
+        driveParameters.currentPose = new Pose2d(0, 0, new Rotation2d(t));
+        driveParameters.currentChassisSpeed = new ChassisSpeeds();
+        driveParameters.operatorForwardDirection = new Rotation2d();
+        drive.withVelocityX(4 * Math.cos(t))
+                .withVelocityY(4 * Math.sin(3 * t))
+                .withRotationalRate(3 * Math.sin(t / 2))
+                .withDeadband(0.1)
+                .withRotationalDeadband(0.1)
+                .update(driveParameters);
+        sink += drive.getSetpoints()[0].speedMetersPerSecond;
+
+        double distance = (i % 160) * 0.05;
+        double radial = (i % 33) * 0.25 - 4;
+        sink += shotMap.getRpm(distance, radial);
+        sink += shotMap.getPivot(distance, radial);
+        sink += shotMap.getTimeOfFlight(distance, radial);
+
+        LimelightIngest.parseInto(mapper, results, SAMPLE_JSON);
+        sink += results.getBotPose2d_wpiBlue().getX() + results.targets_Fiducials.length;
+
+        if (!trajectories.isEmpty()) {
+            int index = i % trajectories.size();
+            if (i % TRAJECTORY_PERIOD == 0) {
+                trajectories.set(index, generate(paths.get(index)));
+            }
+            PathPlannerTrajectory trajectory = trajectories.get(index);
+            double duration = Math.max(trajectory.getTotalTimeSeconds(), Robot.kDefaultPeriod);
+            double time = (i * Robot.kDefaultPeriod) % duration;
+            PathPlannerTrajectoryState state = trajectory.sample(time);
+            ChassisSpeeds speeds = follower.calculateRobotRelativeSpeeds(state.pose, state);
+            sink += speeds.vxMetersPerSecond;
+        }
+    }
+
+    // What following a path does when it starts
+    private PathPlannerTrajectory generate(PathPlannerPath path) {
+        return path.generateTrajectory(new ChassisSpeeds(), new Rotation2d(), robotConfig);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
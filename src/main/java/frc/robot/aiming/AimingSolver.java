@@ -0,0 +1,149 @@
+package frc.robot.aiming;
+
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+import frc.crescendo.Field;
+import frc.robot.swerve.Swerve;
+import frc.spectrumLib.LoopEpoch;
+import frc.spectrumLib.Telemetry;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Aims at the speaker while driving. A note leaves with the robot's velocity, so instead of the
+ * speaker we aim at a virtual target: the speaker moved back by how far the robot travels while the
+ * note is in the air. The time of flight depends on the distance to the virtual target, so the two
+ * are iterated until they agree, which only takes a few steps.
+ *
+ * <p>Solved at most once per loop, the first time anything asks, and every output comes from that
+ * one solution. Nothing is allocated.
+ */
+public class AimingSolver {
+    private static final int MAX_ITERATIONS = 5;
+    private static final double CONVERGED_METERS = 0.01;
+
+    /** Time from asking for the shot to the note leaving, the robot keeps moving meanwhile */
+    @Getter @Setter private double releaseLatency = 0.04;
+
+    /** Direction the launcher points, relative to the front of the robot */
+    @Getter @Setter private double launcherHeadingOffset = 0;
+
+    /** Heading error that counts as aimed */
+    @Getter @Setter private double headingTolerance = Math.toRadians(2);
+
+    private final Swerve swerve;
+    private final ShotMap shotMap;
+    private long epoch = -1;
+
+    /* The solution for this loop */
+    private double heading;
+    private double distance;
+    private double radialVelocity;
+    private double rpm;
+    private double pivotPercent;
+    private double timeOfFlight;
+
+    /** True while the robot is facing the virtual target */
+    public final Trigger aimed = new Trigger(this::isAimed);
+
+    public AimingSolver(Swerve swerve, ShotMap shotMap) {
+        this.swerve = swerve;
+        this.shotMap = shotMap;
+    }
+
+    /** @return field heading for the rotation controller, radians */
+    public double getHeading() {
+        solve();
+        return heading;
+    }
+
+    /** @return distance to the virtual target, meters */
+    public double getDistance() {
+        solve();
+        return distance;
+    }
+
+    public double getRpm() {
+        solve();
+        return rpm;
+    }
+
+    /** @return pivot percentage from the {@link ShotMap}, before the Pivot's offset */
+    public double getPivotPercent() {
+        solve();
+        return pivotPercent;
+    }
+
+    public double getTimeOfFlight() {
+        solve();
+        return timeOfFlight;
+    }
+
+    public boolean isAimed() {
+        double robotHeading = swerve.getRobotPose().getRotation().getRadians();
+        double error = MathUtil.angleModulus(getHeading() - robotHeading);
+        return Math.abs(error) < headingTolerance;
+    }
+
+    private void solve() {
+        long current = LoopEpoch.get();
+        if (current == epoch) {
+            return;
+        }
+        epoch = current;
+
+        // Field relative velocity from the robot relative speeds
+        SwerveDriveState state = swerve.getState();
+        Pose2d pose = swerve.getRobotPose();
+        double cos = pose.getRotation().getCos();
+        double sin = pose.getRotation().getSin();
+        double vx = state.Speeds.vxMetersPerSecond * cos - state.Speeds.vyMetersPerSecond * sin;
+        double vy = state.Speeds.vxMetersPerSecond * sin + state.Speeds.vyMetersPerSecond * cos;
+
+        // Where the robot will be when the note leaves
+        double robotX = pose.getX() + vx * releaseLatency;
+        double robotY = pose.getY() + vy * releaseLatency;
+
+        Translation3d speaker = Field.getActive().getCenterSpeakerOpening();
+        double targetX = speaker.getX();
+        double targetY = speaker.getY();
+
+        double speakerDistance = Math.hypot(targetX - robotX, targetY - robotY);
+        // Positive moving away from the speaker
+        radialVelocity =
+                speakerDistance > 0
+                        ? (vx * (robotX - targetX) + vy * (robotY - targetY)) / speakerDistance
+                        : 0;
+
+        double virtualX = targetX;
+        double virtualY = targetY;
+        distance = speakerDistance;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            timeOfFlight = shotMap.getTimeOfFlight(distance, radialVelocity);
+            virtualX = targetX - vx * timeOfFlight;
+            virtualY = targetY - vy * timeOfFlight;
+            double next = Math.hypot(virtualX - robotX, virtualY - robotY);
+            boolean converged = Math.abs(next - distance) < CONVERGED_METERS;
+            distance = next;
+            if (converged) {
+                break;
+            }
+        }
+
+        heading =
+                MathUtil.angleModulus(
+                        Math.atan2(virtualY - robotY, virtualX - robotX) - launcherHeadingOffset);
+        rpm = shotMap.getRpm(distance, radialVelocity);
+        pivotPercent = shotMap.getPivot(distance, radialVelocity);
+
+        Telemetry.log("Aiming/distance", distance);
+        Telemetry.log("Aiming/radialVelocity", radialVelocity);
+        Telemetry.log("Aiming/heading", heading);
+        Telemetry.log("Aiming/rpm", rpm);
+        Telemetry.log("Aiming/pivotPercent", pivotPercent);
+        Telemetry.log("Aiming/timeOfFlight", timeOfFlight);
+    }
+}
@@ -0,0 +1,191 @@
+package frc.robot.aiming;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.spectrumLib.Telemetry;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Launcher RPM, pivot percentage and time of flight for a shot at the speaker, by distance to the
+ * speaker and the robot's radial velocity (positive moving away from it).
+ *
+ * <p>Shots are tuned as points in deploy/shotmap.csv, one per line: {@code distance meters, radial
+ * velocity m/s, rpm, pivot percent, time of flight seconds}. At startup the points are spread onto
+ * an evenly spaced grid: linearly along distance for each radial velocity in the file, then
+ * linearly between radial velocities. Lookups are a bilinear blend of the four grid points around
+ * the shot, no searching and no boxing. Edit the file and redeploy to change shots, no recompile.
+ */
+public class ShotMap {
+    public static final String FILE_NAME = "shotmap.csv";
+
+    /* Outputs, also the column order after distance and radial velocity in the file */
+    public static final int RPM = 0;
+    public static final int PIVOT = 1;
+    public static final int TIME_OF_FLIGHT = 2;
+    private static final int OUTPUTS = 3;
+
+    private static final double MAX_DISTANCE = 8; // meters
+    private static final double DISTANCE_STEP = 0.05;
+    private static final double MAX_RADIAL = 4; // m/s, both directions
+    private static final double RADIAL_STEP = 0.25;
+
+    /** Used if the file can't be read: only the subwoofer shot, the file has the real table */
+    private static final double[][] FALLBACK_POINTS = {{1.3, 0, 4500, 81, 0.14}};
+
+    private static final Alert missingAlert =
+            new Alert("ShotMap: no " + FILE_NAME + ", only subwoofer shots", AlertType.kError);
+
+    private final int columns;
+    private final int rows;
+    private final double[][] tables = new double[OUTPUTS][];
+
+    public ShotMap() {
+        this(new File(Filesystem.getDeployDirectory(), FILE_NAME));
+    }
+
+    public ShotMap(File file) {
+        columns = (int) Math.round(MAX_DISTANCE / DISTANCE_STEP) + 1;
+        rows = (int) Math.round(2 * MAX_RADIAL / RADIAL_STEP) + 1;
+
+        double[][] points = load(file);
+        if (points.length == 0) {
+            DriverStation.reportWarning(
+                    "ShotMap: no shots in " + file + ", using only the subwoofer shot", false);
+            missingAlert.set(true);
+            points = FALLBACK_POINTS;
+        }
+        build(points);
+        Telemetry.print(
+                String.format(
+                        "ShotMap built from %d shots, %dx%d grid", points.length, columns, rows));
+    }
+
+    /**
+     * @param output {@link #RPM}, {@link #PIVOT} or {@link #TIME_OF_FLIGHT}
+     * @param distance meters to the speaker, clamped to the grid
+     * @param radialVelocity m/s away from the speaker, clamped to the grid
+     */
+    public double get(int output, double distance, double radialVelocity) {
+        double column = MathUtil.clamp(distance / DISTANCE_STEP, 0, columns - 1);
+        double row = MathUtil.clamp((radialVelocity + MAX_RADIAL) / RADIAL_STEP, 0, rows - 1);
+        int x = Math.min((int) column, columns - 2);
+        int y = Math.min((int) row, rows - 2);
+        double tx = column - x;
+        double ty = row - y;
+
+        double[] table = tables[output];
+        int i = y * columns + x;
+        double near = table[i] + (table[i + 1] - table[i]) * tx;
+        double far = table[i + columns] + (table[i + columns + 1] - table[i + columns]) * tx;
+        return near + (far - near) * ty;
+    }
+
+    public double getRpm(double distance, double radialVelocity) {
+        return get(RPM, distance, radialVelocity);
+    }
+
+    public double getPivot(double distance, double radialVelocity) {
+        return get(PIVOT, distance, radialVelocity);
+    }
+
+    public double getTimeOfFlight(double distance, double radialVelocity) {
+        return get(TIME_OF_FLIGHT, distance, radialVelocity);
+    }
+
+    private void build(double[][] points) {
+        // Shots for each radial velocity, sorted by distance
+        TreeMap<Double, TreeMap<Double, double[]>> byRadial = new TreeMap<>();
+        for (double[] point : points) {
+            byRadial.computeIfAbsent(point[1], k -> new TreeMap<>()).put(point[0], point);
+        }
+
+        for (int output = 0; output < OUTPUTS; output++) {
+            tables[output] = new double[columns * rows];
+        }
+        for (int y = 0; y < rows; y++) {
+            double radial = -MAX_RADIAL + y * RADIAL_STEP;
+            Map.Entry<Double, TreeMap<Double, double[]>> low = byRadial.floorEntry(radial);
+            Map.Entry<Double, TreeMap<Double, double[]>> high = byRadial.ceilingEntry(radial);
+            if (low == null) {
+                low = high;
+            } else if (high == null) {
+                high = low;
+            }
+            double span = high.getKey() - low.getKey();
+            double t = span > 0 ? (radial - low.getKey()) / span : 0;
+
+            for (int x = 0; x < columns; x++) {
+                double distance = x * DISTANCE_STEP;
+                for (int output = 0; output < OUTPUTS; output++) {
+                    double a = interpolate(low.getValue(), distance, output);
+                    double b = interpolate(high.getValue(), distance, output);
+                    tables[output][y * columns + x] = a + (b - a) * t;
+                }
+            }
+        }
+    }
+
+    // Piecewise linear along distance, holding the end shots past either end
+    private static double interpolate(
+            TreeMap<Double, double[]> shots, double distance, int output) {
+        Map.Entry<Double, double[]> low = shots.floorEntry(distance);
+        Map.Entry<Double, double[]> high = shots.ceilingEntry(distance);
+        if (low == null) {
+            return high.getValue()[2 + output];
+        }
+        if (high == null || high.getKey().equals(low.getKey())) {
+            return low.getValue()[2 + output];
+        }
+        double t = (distance - low.getKey()) / (high.getKey() - low.getKey());
+        double a = low.getValue()[2 + output];
+        return a + (high.getValue()[2 + output] - a) * t;
+    }
+
+    /** @return the shots in the file, empty if it is missing or has none */
+    private static double[][] load(File file) {
+        if (!file.exists()) {
+            return new double[0][];
+        }
+        ArrayList<double[]> points = new ArrayList<>();
+        try {
+            int lineNumber = 0;
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || Character.isLetter(line.charAt(0))) {
+                    continue; // blank, comment or header
+                }
+                String[] parts = line.split(",");
+                if (parts.length != 2 + OUTPUTS) {
+                    DriverStation.reportWarning(
+                            "ShotMap: skipping " + file.getName() + " line " + lineNumber, false);
+                    continue;
+                }
+                double[] point = new double[parts.length];
+                try {
+                    for (int i = 0; i < parts.length; i++) {
+                        point[i] = Double.parseDouble(parts[i].trim());
+                    }
+                } catch (NumberFormatException e) {
+                    DriverStation.reportWarning(
+                            "ShotMap: skipping " + file.getName() + " line " + lineNumber, false);
+                    continue;
+                }
+                points.add(point);
+            }
+        } catch (IOException e) {
+            DriverStation.reportWarning("ShotMap: failed to read " + file + ": " + e, false);
+            return new double[0][];
+        }
+        return points.toArray(new double[0][]);
+    }
+}
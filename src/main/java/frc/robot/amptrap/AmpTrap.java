@@ -52,6 +52,7 @@ public class AmpTrap extends Mechanism {
             configForwardTorqueCurrentLimit(torqueCurrentLimit);
             configReverseTorqueCurrentLimit(torqueCurrentLimit);
             configNeutralBrakeMode(true);
+            configSignalRates(4, 50, 10); // velocity only, position is just shown
             configCounterClockwise_Positive();
             configMotionMagic(51, 205, 0);
         }
@@ -72,9 +73,6 @@ public class AmpTrap extends Mechanism {
         Telemetry.print(getName() + " Subsystem Initialized");
     }
 
-    @Override
-    public void periodic() {}
-
     public void setupStates() {
         AmpTrapStates.setStates();
     }
@@ -18,6 +18,9 @@ import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.PrintCommand;
 import frc.spectrumLib.Telemetry;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
 import org.json.simple.parser.ParseException;
 
 public class Auton {
@@ -28,7 +31,12 @@ public class Auton {
     public static final EventTrigger autonSpitReady = new EventTrigger("spitReady");
     public static final EventTrigger autonScore = new EventTrigger("score");
 
-    private final SendableChooser<Command> pathChooser = new SendableChooser<>();
+    private static final String DO_NOTHING = "Do Nothing";
+
+    private final SendableChooser<String> pathChooser = new SendableChooser<>();
+    private final AutonCache cache = new AutonCache(this::buildAuton);
+    /* The command init() scheduled, getAutonomousCommand() hands out a new one every call */
+    @Getter private Command autonCommand = null;
     private boolean autoMessagePrinted = true;
     private double autonStart = 0;
 
@@ -38,14 +46,19 @@ public class Auton {
      */
     public void setupSelectors() {
 
-        pathChooser.setDefaultOption("Do Nothing", Commands.print("Do Nothing Auto ran"));
-        // autonChooser.addOption("1 Meter", new PathPlannerAuto("1 Meter Auto"));
-        // autonChooser.addOption("3 Meter", new PathPlannerAuto("3 Meter Auto"));
+        pathChooser.setDefaultOption(DO_NOTHING, DO_NOTHING);
 
-        pathChooser.addOption("Basic Front 4", spectrumAuton("Basic Front 4"));
-        pathChooser.addOption("Madtown", spectrumAuton("Madtown"));
+        // Every auto in deploy/pathplanner/autos, built ahead of time by the AutonCache
+        List<String> autos = AutonCache.findAutos();
+        for (String name : autos) {
+            pathChooser.addOption(name, name);
+        }
 
         SmartDashboard.putData("Auto Chooser", pathChooser);
+
+        List<String> names = new ArrayList<>(autos);
+        names.add(0, DO_NOTHING);
+        cache.prebuild(names);
     }
 
     public Auton() {
@@ -53,8 +66,13 @@ public class Auton {
         Telemetry.print("Auton Subsystem Initialized: ");
     }
 
+    /** Called every loop while disabled, builds the autos ahead of time */
+    public void disabledPeriodic() {
+        cache.disabledPeriodic(pathChooser.getSelected());
+    }
+
     public void init() {
-        Command autonCommand = getAutonomousCommand();
+        autonCommand = getAutonomousCommand();
 
         if (autonCommand != null) {
             autonCommand.schedule();
@@ -81,16 +99,24 @@ public class Auton {
         return Commands.waitSeconds(0.01).andThen(new PathPlannerAuto(autoName));
     }
 
+    private Command buildAuton(String name) {
+        if (DO_NOTHING.equals(name)) {
+            return Commands.print("Do Nothing Auto ran");
+        }
+        return spectrumAuton(name);
+    }
+
     /**
-     * Retrieves the autonomous command selected on the shuffleboard.
+     * Retrieves the autonomous command selected on the shuffleboard from the AutonCache. Each call
+     * hands out a new command, so only call it to run the auto.
      *
      * @return the selected autonomous command if one is chosen; otherwise, returns a PrintCommand
      *     indicating that the autonomous command is null.
      */
     public Command getAutonomousCommand() {
-        Command auton = pathChooser.getSelected(); // sees what auto is chosen on shuffleboard
+        String auton = pathChooser.getSelected(); // sees what auto is chosen on shuffleboard
         if (auton != null) {
-            return auton; // checks to make sure there is an auto and if there is it runs an auto
+            return cache.get(auton); // the prebuilt command for the auto
         } else {
             return new PrintCommand(
                     "*** AUTON COMMAND IS NULL ***"); // runs if there is no auto chosen, which
@@ -108,7 +134,7 @@ public class Auton {
 
     /** Called at AutonExit and displays the duration of the auton command Based on 6328 code */
     public void printAutoDuration() {
-        Command autoCommand = getAutonomousCommand();
+        Command autoCommand = autonCommand;
         if (autoCommand != null) {
             if (!autoCommand.isScheduled() && !autoMessagePrinted) {
                 if (DriverStation.isAutonomousEnabled()) {
@@ -0,0 +1,105 @@
+package frc.robot.auton;
+
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import frc.spectrumLib.Telemetry;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builds every auto while the robot is disabled so autonomousInit only has to schedule one.
+ *
+ * <p>The commands are built on the main thread, one per disabled loop, because composing commands
+ * isn't thread safe. An auto is rebuilt after it has been run, so each run gets a fresh command.
+ * The alliance doesn't matter here: PathPlannerAuto flips its paths for red when it runs, so the
+ * same command works for both. The {@link frc.robot.WarmupService} warms up PathPlanner's path
+ * loading, flipping and trajectory code.
+ */
+public class AutonCache {
+    private final Function<String, Command> builder;
+    private final HashMap<String, Command> commands = new HashMap<>();
+    private final ArrayDeque<String> toBuild = new ArrayDeque<>();
+    private String lastSelected = null;
+
+    /** @param builder builds the command for an auto name */
+    public AutonCache(Function<String, Command> builder) {
+        this.builder = builder;
+    }
+
+    /** @return the name of every auto in deploy/pathplanner/autos, sorted */
+    public static List<String> findAutos() {
+        ArrayList<String> names = new ArrayList<>();
+        File[] files =
+                new File(Filesystem.getDeployDirectory(), "pathplanner/autos")
+                        .listFiles((dir, name) -> name.endsWith(".auto"));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                names.add(name.substring(0, name.length() - ".auto".length()));
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Queue autos to be built while disabled
+     *
+     * @param names autos to build, the first is built first
+     */
+    public void prebuild(List<String> names) {
+        for (String name : names) {
+            if (!toBuild.contains(name)) {
+                toBuild.add(name);
+            }
+        }
+    }
+
+    /** Called every disabled loop, builds at most one auto */
+    public void disabledPeriodic(String selected) {
+        // A new selection jumps the queue if it isn't built yet
+        if (selected != null) {
+            if (!selected.equals(lastSelected) && !commands.containsKey(selected)) {
+                toBuild.remove(selected);
+                toBuild.addFirst(selected);
+            }
+            lastSelected = selected;
+        }
+
+        String name = toBuild.poll();
+        if (name != null) {
+            commands.put(name, build(name));
+        }
+    }
+
+    /**
+     * Hand out an auto's command, built now if it wasn't ready. A new one is queued for the next
+     * time the robot is disabled.
+     */
+    public Command get(String name) {
+        Command command = commands.remove(name);
+        if (command == null) {
+            DriverStation.reportWarning(
+                    "Auton " + name + " wasn't prebuilt, building it now", false);
+            command = build(name);
+        }
+        if (!toBuild.contains(name)) {
+            toBuild.add(name);
+        }
+        return command;
+    }
+
+    private Command build(String name) {
+        double start = Timer.getFPGATimestamp();
+        Command command = builder.apply(name);
+        Telemetry.log("Auton/BuildMs/" + name, (Timer.getFPGATimestamp() - start) * 1000);
+        return command;
+    }
+}
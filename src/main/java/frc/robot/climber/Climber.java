@@ -61,6 +61,7 @@ public class Climber extends Mechanism {
             configForwardSoftLimit(getMaxRotations(), true);
             configReverseSoftLimit(getMinRotations(), true);
             configNeutralBrakeMode(true);
+            configSignalRates(50, 10, 10); // position for the climb height
             // configMotionMagicPosition(0.12);
             configCounterClockwise_Positive(); // might be different on actual robot
         }
@@ -78,9 +79,6 @@ public class Climber extends Mechanism {
         Telemetry.print(getName() + " Subsystem Initialized");
     }
 
-    @Override
-    public void periodic() {}
-
     public void setupStates() {
         ClimberStates.setStates();
     }
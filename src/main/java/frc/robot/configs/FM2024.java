@@ -18,6 +18,7 @@ public class FM2024 extends Config {
         operator.setAttached(true);
         pivot.setAttached(true);
         pilot.setAttached(true);
+        // Limelights stay detached, the Config ones are placeholders until we measure the mounts
 
         // Pivot CANCoder configs
         /**
@@ -60,6 +60,7 @@ public class Elevator extends Mechanism {
             configForwardSoftLimit(maxRotations, true);
             configReverseSoftLimit(minRotations, true);
             configNeutralBrakeMode(true);
+            configSignalRates(50, 10, 50); // current for checkMaxCurrent
             configCounterClockwise_Positive();
         }
 
@@ -82,9 +83,6 @@ public class Elevator extends Mechanism {
         Telemetry.print(getName() + " Subsystem Initialized");
     }
 
-    @Override
-    public void periodic() {}
-
     public void setupStates() {
         ElevatorStates.setStates();
     }
@@ -64,6 +64,7 @@ public class Feeder extends Mechanism {
             configForwardTorqueCurrentLimit(torqueCurrentLimit);
             configReverseTorqueCurrentLimit(torqueCurrentLimit);
             configNeutralBrakeMode(true);
+            configSignalRates(4, 50, 10); // velocity only, position is just shown
             configCounterClockwise_Positive();
             configMotionMagic(51, 205, 0);
         }
@@ -84,9 +85,6 @@ public class Feeder extends Mechanism {
         Telemetry.print(getName() + " Subsystem Initialized");
     }
 
-    @Override
-    public void periodic() {}
-
     public void setupStates() {
         FeederStates.setStates();
     }
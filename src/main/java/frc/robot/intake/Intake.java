@@ -48,6 +48,7 @@ public class Intake extends Mechanism {
             configReverseTorqueCurrentLimit(torqueCurrentLimit);
             configNeutralBrakeMode(true);
             configClockwise_Positive(); // might be different on actual robot
+            configSignalSampler(250); // Catch current spikes between loops
             configMotionMagic(51, 205, 0);
         }
     }
@@ -66,9 +67,6 @@ public class Intake extends Mechanism {
         Telemetry.print(getName() + " Subsystem Initialized");
     }
 
-    @Override
-    public void periodic() {}
-
     public void setupStates() {
         IntakeStates.setStates();
     }
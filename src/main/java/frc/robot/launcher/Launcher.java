@@ -1,11 +1,11 @@
 package frc.robot.launcher;
 
 import com.ctre.phoenix6.sim.TalonFXSimState;
-import edu.wpi.first.math.interpolation.InterpolatingDoubleTreeMap;
 import edu.wpi.first.networktables.NTSendableBuilder;
 import edu.wpi.first.wpilibj.smartdashboard.Mechanism2d;
 import frc.robot.Robot;
 import frc.robot.RobotSim;
+import frc.robot.aiming.ShotMap;
 import frc.spectrumLib.Rio;
 import frc.spectrumLib.Telemetry;
 import frc.spectrumLib.mechanism.Mechanism;
@@ -35,9 +35,6 @@ public class Launcher extends Mechanism {
         @Getter private double launcherY = 0.1;
         @Getter private double wheelDiameterIn = 2;
 
-        @Getter
-        private final InterpolatingDoubleTreeMap distanceMap = new InterpolatingDoubleTreeMap();
-
         public LauncherConfig() {
             super("LeftLauncher", 42, Rio.CANIVORE);
             configPIDGains(0, velocityKp, 0.0, 0.0);
@@ -49,13 +46,9 @@ public class Launcher extends Mechanism {
             configReverseTorqueCurrentLimit(torqueCurrentLimit);
             configNeutralBrakeMode(true);
             configCounterClockwise_Positive();
+            configSignalSampler(250); // Catch current spikes between loops
             configMotionMagic(51, 205, 0);
             setFollowerConfigs(new FollowerConfig("RightLauncher", 43, Rio.CANIVORE, true));
-
-            distanceMap.put(0.0, 4500.0);
-            distanceMap.put(4.1, 4500.0);
-            distanceMap.put(4.11, 5000.0);
-            distanceMap.put(5.9, 5000.0);
         }
     }
 
@@ -87,8 +80,9 @@ public class Launcher extends Mechanism {
         }
     }
 
+    /** Speaker shot RPM from the {@link ShotMap}, standing still */
     protected double getRPMfromDistance(DoubleSupplier distance) {
-        return config.getDistanceMap().get(distance.getAsDouble());
+        return Robot.getShotMap().getRpm(distance.getAsDouble(), 0);
     }
 
     // --------------------------------------------------------------------------------
@@ -21,7 +21,7 @@ public class LauncherStates {
 
     public static void setStates() {
         subwooferPrep.whileTrue(log(subwooferRPM()));
-        speakerPrep.whileTrue(log(defaultLauncherRPM()));
+        speakerPrep.whileTrue(log(aimedRPM()));
         ejecting.whileTrue(log(ejectRPM()));
         score.and(atZeroRPM).onTrue(log(spitRpm()));
         score.onFalse(log(launcher.runStop()));
@@ -30,8 +30,9 @@ public class LauncherStates {
         coastMode.onFalse(log(ensureBrakeMode()));
     }
 
-    private static Command defaultLauncherRPM() {
-        return runVelocity(config::getDefaultLaunchRPM).withName("Launcher.defaultLauncherRPM");
+    /** Speaker shot RPM from the {@link frc.robot.aiming.AimingSolver}, works while driving */
+    private static Command aimedRPM() {
+        return runVelocity(Robot.getAimingSolver()::getRpm).withName("Launcher.aimedRPM");
     }
 
     private static Command subwooferRPM() {
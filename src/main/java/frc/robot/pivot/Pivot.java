@@ -1,11 +1,8 @@
 package frc.robot.pivot;
 
-import com.ctre.phoenix6.StatusCode;
 import com.ctre.phoenix6.configs.CANcoderConfiguration;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
-import com.ctre.phoenix6.configs.TalonFXConfigurator;
 import com.ctre.phoenix6.hardware.CANcoder;
-import com.ctre.phoenix6.hardware.TalonFX;
 import com.ctre.phoenix6.signals.AbsoluteSensorRangeValue;
 import com.ctre.phoenix6.signals.FeedbackSensorSourceValue;
 import com.ctre.phoenix6.signals.SensorDirectionValue;
@@ -15,12 +12,15 @@ import edu.wpi.first.networktables.NTSendableBuilder;
 import edu.wpi.first.wpilibj.smartdashboard.Mechanism2d;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.FunctionalCommand;
+import frc.robot.Robot;
 import frc.robot.RobotSim;
+import frc.robot.aiming.ShotMap;
 import frc.spectrumLib.Rio;
 import frc.spectrumLib.Telemetry;
 import frc.spectrumLib.mechanism.Mechanism;
 import frc.spectrumLib.sim.ArmConfig;
 import frc.spectrumLib.sim.ArmSim;
+import frc.spectrumLib.talonFX.DeviceBringup;
 import lombok.*;
 
 public class Pivot extends Mechanism {
@@ -92,6 +92,7 @@ public class Pivot extends Mechanism {
             configReverseSoftLimit(getMinRotations(), true);
             configForwardSoftLimit(getMaxRotations(), true);
             configNeutralBrakeMode(true);
+            configSignalRates(100, 50, 10); // aiming Triggers check position
             configCounterClockwise_Positive(); // might be different on actual robot
             setRatio(Math.abs(172.8)); // getGearRatio()));
         }
@@ -100,8 +101,11 @@ public class Pivot extends Mechanism {
             this.CANcoderOffset = CANcoderOffset;
         }
 
-        public PivotConfig modifyMotorConfig(TalonFX motor) {
-            TalonFXConfigurator configurator = motor.getConfigurator();
+        /** Use the CANcoder for feedback, has to be called before the motor is configured */
+        public PivotConfig modifyMotorConfig() {
+            if (!isCANcoderAttached) {
+                return this;
+            }
             TalonFXConfiguration talonConfigMod = getTalonConfig();
             talonConfigMod.Feedback.FeedbackRemoteSensorID = CANcoderID;
             switch (pivotFeedbackSource) {
@@ -119,7 +123,6 @@ public class Pivot extends Mechanism {
                     break;
             }
             talonConfigMod.Feedback.RotorToSensorRatio = CANcoderGearRatio;
-            configurator.apply(talonConfigMod);
             talonConfig = talonConfigMod;
             return this;
         }
@@ -131,11 +134,11 @@ public class Pivot extends Mechanism {
     CANcoderSimState canCoderSim;
 
     public Pivot(PivotConfig config) {
-        super(config);
+        // Modify configuration to use remote CANcoder fused, before the motor gets configured
+        super(config.modifyMotorConfig());
         this.config = config;
 
         if (config.isCANcoderAttached()) {
-            config.modifyMotorConfig(motor); // Modify configuration to use remote CANcoder fused
             m_CANcoder = new CANcoder(config.getCANcoderID(), Rio.CANIVORE);
             CANcoderConfiguration cancoderConfigs = new CANcoderConfiguration();
             cancoderConfigs.MagnetSensor.MagnetOffset = config.getCANcoderOffset();
@@ -143,7 +146,7 @@ public class Pivot extends Mechanism {
                     SensorDirectionValue.CounterClockwise_Positive;
             cancoderConfigs.MagnetSensor.AbsoluteSensorRange =
                     AbsoluteSensorRangeValue.Unsigned_0To1;
-            checkCANcoderResponse(m_CANcoder.getConfigurator().apply(cancoderConfigs));
+            DeviceBringup.configure(getName() + " CANcoder", m_CANcoder, cancoderConfigs);
         }
 
         simulationInit();
@@ -151,9 +154,6 @@ public class Pivot extends Mechanism {
         Telemetry.print(getName() + " Subsystem Initialized");
     }
 
-    @Override
-    public void periodic() {}
-
     public void setupStates() {
         PivotStates.setStates();
     }
@@ -176,7 +176,18 @@ public class Pivot extends Mechanism {
         }
     }
 
-    // Removed tree map getters
+    /**
+     * Speaker shot pivot percentage from the {@link ShotMap}, standing still. The offset moves the
+     * shot by a percentage of how far it is from the subwoofer shot, so far shots move more.
+     */
+    public double getPercentFromDistance(double distance) {
+        return applyOffset(Robot.getShotMap().getPivot(distance, 0));
+    }
+
+    /** Adjust a shot map pivot percentage by the offset, see {@link #getPercentFromDistance} */
+    public double applyOffset(double percent) {
+        return percent - (config.getSubwoofer() - percent) * config.getOFFSET() / 100;
+    }
 
     public void increaseOffset() {
         increaseOffset(1);
@@ -258,16 +269,6 @@ public class Pivot extends Mechanism {
         return false;
     }
 
-    public void checkCANcoderResponse(StatusCode response) {
-        if (!response.isOK()) {
-            Telemetry.print(
-                    "Pivot CANcoder ID "
-                            + config.getCANcoderID()
-                            + " failed config with error "
-                            + response.toString());
-        }
-    }
-
     // --------------------------------------------------------------------------------
     // Simulation
     // --------------------------------------------------------------------------------
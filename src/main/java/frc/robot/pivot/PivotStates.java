@@ -22,12 +22,25 @@ public class PivotStates {
         // missing bindTriggers
         intaking.whileTrue(log(subwoofer()));
         ampPrep.whileTrue(log(home()));
+        speakerPrep.whileTrue(log(aimAtSpeaker()));
 
         coastMode.whileTrue(log(coastMode()));
         coastMode.onFalse(log(ensureBrakeMode()));
     }
 
-    // missing distance based pivot commands
+    /** Speaker shot from the {@link frc.robot.aiming.AimingSolver}, works while driving */
+    public static Command aimAtSpeaker() {
+        return pivot.moveToPercentage(
+                        () -> pivot.applyOffset(Robot.getAimingSolver().getPivotPercent()))
+                .withName("Pivot.aimAtSpeaker");
+    }
+
+    /** Speaker shot from the {@link frc.robot.aiming.ShotMap} for a distance in meters */
+    public static Command distance(DoubleSupplier distanceMeter) {
+        return pivot.moveToPercentage(
+                        () -> pivot.getPercentFromDistance(distanceMeter.getAsDouble()))
+                .withName("Pivot.distance");
+    }
 
     public static Command runPivot(DoubleSupplier speed) {
         return pivot.runPercentage(speed).withName("Pivot.runPivot");
@@ -0,0 +1,141 @@
+package frc.robot.swerve;
+
+import com.ctre.phoenix6.Utils;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.lang.invoke.VarHandle;
+
+/**
+ * The last couple of seconds of robot poses (512 at 250 Hz), recorded by the odometry thread every
+ * time it updates. Used to look up where the robot was when a camera frame was taken, so vision
+ * and aiming can make up for their latency.
+ *
+ * <p>Poses are stored in primitive arrays in a ring and shared with a sequence lock: the odometry
+ * thread never waits, and a reader that raced with a write just reads again. Nothing allocates
+ * except {@link #poseAt(double)}.
+ *
+ * <p>Timestamps are in the Phoenix timebase ({@link Utils#getCurrentTimeSeconds()}), use {@link
+ * #poseAtFpga(double, double[])} for FPGA timestamps like the ones from cameras.
+ */
+public class PoseHistory {
+    private final int mask;
+    private final double[] timestamps;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] headings;
+
+    // Odd while the writer is in the middle of a write
+    private volatile long sequence = 0;
+    private long count = 0; // only written by the odometry thread
+
+    /** @param capacity number of poses to keep, rounded up to a power of two */
+    public PoseHistory(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mask = size - 1;
+        timestamps = new double[size];
+        xs = new double[size];
+        ys = new double[size];
+        headings = new double[size];
+    }
+
+    /** Only called by the odometry thread, timestamps must keep increasing */
+    public void add(double timestamp, Pose2d pose) {
+        int slot = (int) (count & mask);
+        sequence++;
+        VarHandle.storeStoreFence(); // the slot writes can't move above the odd sequence
+        timestamps[slot] = timestamp;
+        xs[slot] = pose.getX();
+        ys[slot] = pose.getY();
+        headings[slot] = pose.getRotation().getRadians();
+        count++;
+        sequence++;
+    }
+
+    /**
+     * The pose at a past time, interpolated between the two poses around it. Times older than the
+     * history get the oldest pose and newer times get the newest.
+     *
+     * @param timestamp Phoenix timebase seconds
+     * @param out filled with x meters, y meters and heading radians
+     * @return false if there is no history yet
+     */
+    public boolean poseAt(double timestamp, double[] out) {
+        while (true) {
+            long start = sequence;
+            if ((start & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            boolean found = read(timestamp, out);
+            VarHandle.loadLoadFence(); // finish reading the slots before checking the sequence
+            if (sequence == start) {
+                return found;
+            }
+        }
+    }
+
+    /** {@link #poseAt(double, double[])} with an FPGA timestamp */
+    public boolean poseAtFpga(double fpgaTimestamp, double[] out) {
+        return poseAt(Utils.fpgaToCurrentTime(fpgaTimestamp), out);
+    }
+
+    /**
+     * The pose at a past time, allocates a Pose2d
+     *
+     * @param timestamp Phoenix timebase seconds
+     * @return the pose, or null if there is no history yet
+     */
+    public Pose2d poseAt(double timestamp) {
+        double[] out = new double[3];
+        if (!poseAt(timestamp, out)) {
+            return null;
+        }
+        return new Pose2d(out[0], out[1], new Rotation2d(out[2]));
+    }
+
+    // Racy read, checked against the sequence by poseAt
+    private boolean read(double timestamp, double[] out) {
+        long newest = count - 1;
+        if (newest < 0) {
+            return false;
+        }
+        long oldest = Math.max(0, count - timestamps.length);
+
+        if (timestamp >= timestamps[(int) (newest & mask)]) {
+            copy((int) (newest & mask), out);
+            return true;
+        }
+        if (timestamp <= timestamps[(int) (oldest & mask)]) {
+            copy((int) (oldest & mask), out);
+            return true;
+        }
+
+        // Binary search for the last pose at or before the timestamp
+        long low = oldest;
+        long high = newest;
+        while (high - low > 1) {
+            long mid = (low + high) >>> 1;
+            if (timestamps[(int) (mid & mask)] <= timestamp) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        int a = (int) (low & mask);
+        int b = (int) (high & mask);
+        double span = timestamps[b] - timestamps[a];
+        double t = span > 0 ? (timestamp - timestamps[a]) / span : 0;
+        out[0] = xs[a] + (xs[b] - xs[a]) * t;
+        out[1] = ys[a] + (ys[b] - ys[a]) * t;
+        double turn = MathUtil.angleModulus(headings[b] - headings[a]);
+        out[2] = MathUtil.angleModulus(headings[a] + turn * t);
+        return true;
+    }
+
+    private void copy(int slot, double[] out) {
+        out[0] = xs[slot];
+        out[1] = ys[slot];
+        out[2] = headings[slot];
+    }
+}
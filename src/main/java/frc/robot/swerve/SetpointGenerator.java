@@ -0,0 +1,254 @@
+package frc.robot.swerve;
+
+import static edu.wpi.first.units.Units.*;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.swerve.SwerveModule;
+import com.ctre.phoenix6.swerve.SwerveModule.DriveRequestType;
+import com.ctre.phoenix6.swerve.SwerveModule.SteerRequestType;
+import com.ctre.phoenix6.swerve.SwerveRequest;
+import com.pathplanner.lib.config.RobotConfig;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.system.plant.DCMotor;
+
+/**
+ * Field centric drive that only asks the modules for what they can actually do. Each update, the
+ * chassis speeds move from the last setpoint toward the stick's speeds only as far as every module
+ * allows: a wheel's velocity can't change faster than the traction from the slip current (or the
+ * carpet, whichever is less), and a moving wheel can't turn faster than the steer motor. Hard
+ * direction changes are spread over a few updates instead of scrubbing the wheels and pulling
+ * current, while straight line acceleration still reaches top speed.
+ *
+ * <p>The drivetrain runs requests on its odometry thread, so this runs at the odometry rate. All
+ * the math is done in preallocated arrays, only the module angles are allocated.
+ */
+public class SetpointGenerator implements SwerveRequest {
+    private static final double GRAVITY = 9.81;
+    private static final double STOPPED_MPS = 0.05; // a wheel this slow can turn freely
+    private static final double STALE_SECONDS = 0.1; // reseed from the measured speeds after this
+    private static final int BISECTION_STEPS = 8;
+
+    private final int moduleCount;
+    private final double[] moduleX;
+    private final double[] moduleY;
+    private final double maxSpeed;
+    private final double maxModuleAcceleration;
+    private final double maxSteerVelocity;
+
+    private double velocityX = 0;
+    private double velocityY = 0;
+    private double rotationalRate = 0;
+    private double deadband = 0;
+    private double rotationalDeadband = 0;
+    private DriveRequestType driveRequestType = DriveRequestType.OpenLoopVoltage;
+
+    /* The last setpoint, robot relative */
+    private double lastVx = 0;
+    private double lastVy = 0;
+    private double lastOmega = 0;
+    private double lastTimestamp = 0;
+
+    private final SwerveModuleState[] setpoints;
+
+    public SetpointGenerator(
+            SwerveConfig config, RobotConfig robotConfig, Translation2d[] moduleLocations) {
+        moduleCount = moduleLocations.length;
+        moduleX = new double[moduleCount];
+        moduleY = new double[moduleCount];
+        setpoints = new SwerveModuleState[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            moduleX[i] = moduleLocations[i].getX();
+            moduleY[i] = moduleLocations[i].getY();
+            setpoints[i] = new SwerveModuleState();
+        }
+        maxSpeed = config.getSpeedAt12Volts().in(MetersPerSecond);
+        maxSteerVelocity = config.getMaxSteerVelocity();
+
+        // Wheel force at the slip current, spread over each module's share of the robot
+        DCMotor driveMotor = DCMotor.getKrakenX60(1);
+        double wheelForce =
+                config.getSlipCurrent().in(Amps)
+                        * driveMotor.KtNMPerAmp
+                        * config.getDriveGearRatio()
+                        / config.getWheelRadius().in(Meters);
+        double slipAcceleration = wheelForce / (robotConfig.massKG / moduleCount);
+        double tractionAcceleration = robotConfig.moduleConfig.wheelCOF * GRAVITY;
+        maxModuleAcceleration = Math.min(slipAcceleration, tractionAcceleration);
+    }
+
+    /** Field centric forward velocity from the operator's perspective, m/s */
+    public SetpointGenerator withVelocityX(double velocityX) {
+        this.velocityX = velocityX;
+        return this;
+    }
+
+    /** Field centric left velocity from the operator's perspective, m/s */
+    public SetpointGenerator withVelocityY(double velocityY) {
+        this.velocityY = velocityY;
+        return this;
+    }
+
+    /** Counter clockwise rate, rad/s */
+    public SetpointGenerator withRotationalRate(double rotationalRate) {
+        this.rotationalRate = rotationalRate;
+        return this;
+    }
+
+    public SetpointGenerator withDeadband(double deadband) {
+        this.deadband = deadband;
+        return this;
+    }
+
+    public SetpointGenerator withRotationalDeadband(double rotationalDeadband) {
+        this.rotationalDeadband = rotationalDeadband;
+        return this;
+    }
+
+    public SetpointGenerator withDriveRequestType(DriveRequestType driveRequestType) {
+        this.driveRequestType = driveRequestType;
+        return this;
+    }
+
+    /** @return the module states sent last update, don't modify them */
+    public SwerveModuleState[] getSetpoints() {
+        return setpoints;
+    }
+
+    @Override
+    public StatusCode apply(SwerveControlParameters parameters, SwerveModule... modulesToApply) {
+        update(parameters);
+        for (int i = 0; i < moduleCount; i++) {
+            modulesToApply[i].apply(
+                    setpoints[i], driveRequestType, SteerRequestType.MotionMagicExpo);
+        }
+        return StatusCode.OK;
+    }
+
+    /**
+     * Move the setpoint one update toward the request without sending it to any modules, the result
+     * is in {@link #getSetpoints()}
+     */
+    public void update(SwerveControlParameters parameters) {
+        double dt = parameters.updatePeriod;
+        if (parameters.timestamp - lastTimestamp > STALE_SECONDS) {
+            // Not run for a while, start from what the robot is actually doing
+            lastVx = parameters.currentChassisSpeed.vxMetersPerSecond;
+            lastVy = parameters.currentChassisSpeed.vyMetersPerSecond;
+            lastOmega = parameters.currentChassisSpeed.omegaRadiansPerSecond;
+        }
+        lastTimestamp = parameters.timestamp;
+
+        // Deadband, then field centric from the operator's perspective to robot relative
+        double fieldX = velocityX;
+        double fieldY = velocityY;
+        if (Math.hypot(fieldX, fieldY) < deadband) {
+            fieldX = 0;
+            fieldY = 0;
+        }
+        double omega = Math.abs(rotationalRate) < rotationalDeadband ? 0 : rotationalRate;
+        double angle =
+                parameters.currentPose.getRotation().getRadians()
+                        - parameters.operatorForwardDirection.getRadians();
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        double vx = fieldX * cos + fieldY * sin;
+        double vy = -fieldX * sin + fieldY * cos;
+
+        // Slow everything down together if any wheel would be past top speed
+        double fastest = 0;
+        for (int i = 0; i < moduleCount; i++) {
+            fastest = Math.max(fastest, Math.hypot(moduleVx(vx, omega, i), moduleVy(vy, omega, i)));
+        }
+        if (fastest > maxSpeed) {
+            double scale = maxSpeed / fastest;
+            vx *= scale;
+            vy *= scale;
+            omega *= scale;
+        }
+
+        // How far toward the goal every module can get this update
+        double dVx = vx - lastVx;
+        double dVy = vy - lastVy;
+        double dOmega = omega - lastOmega;
+        double step = 1;
+        for (int i = 0; i < moduleCount && step > 0; i++) {
+            step = Math.min(step, accelerationStep(i, dVx, dVy, dOmega, dt));
+            step = Math.min(step, steerStep(i, dVx, dVy, dOmega, dt, step));
+        }
+
+        lastVx += dVx * step;
+        lastVy += dVy * step;
+        lastOmega += dOmega * step;
+
+        for (int i = 0; i < moduleCount; i++) {
+            double x = moduleVx(lastVx, lastOmega, i);
+            double y = moduleVy(lastVy, lastOmega, i);
+            double speed = Math.hypot(x, y);
+            SwerveModuleState state = setpoints[i];
+            if (speed > STOPPED_MPS) {
+                state.speedMetersPerSecond = speed;
+                state.angle = new Rotation2d(x, y);
+            } else {
+                // Stopped wheels keep pointing where they were
+                state.speedMetersPerSecond = 0;
+            }
+        }
+    }
+
+    // A wheel's velocity changes linearly with the step, limit its change to the traction we have
+    private double accelerationStep(int i, double dVx, double dVy, double dOmega, double dt) {
+        double change = Math.hypot(moduleVx(dVx, dOmega, i), moduleVy(dVy, dOmega, i));
+        if (change <= 0) {
+            return 1;
+        }
+        return Math.min(1, maxModuleAcceleration * dt / change);
+    }
+
+    // Largest step up to max where the wheel turns no more than the steer motor can this update
+    private double steerStep(int i, double dVx, double dVy, double dOmega, double dt, double max) {
+        double startX = moduleVx(lastVx, lastOmega, i);
+        double startY = moduleVy(lastVy, lastOmega, i);
+        if (Math.hypot(startX, startY) < STOPPED_MPS) {
+            return max;
+        }
+        double maxTurn = maxSteerVelocity * dt;
+        if (turn(startX, startY, dVx, dVy, dOmega, i, max) <= maxTurn) {
+            return max;
+        }
+        double low = 0;
+        double high = max;
+        for (int step = 0; step < BISECTION_STEPS; step++) {
+            double mid = (low + high) / 2;
+            if (turn(startX, startY, dVx, dVy, dOmega, i, mid) <= maxTurn) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // How far the wheel turns going to this step, a wheel can drive backwards so at most 90 deg
+    private double turn(
+            double startX, double startY, double dVx, double dVy, double dOmega, int i, double t) {
+        double x = startX + moduleVx(dVx, dOmega, i) * t;
+        double y = startY + moduleVy(dVy, dOmega, i) * t;
+        if (Math.hypot(x, y) < STOPPED_MPS) {
+            return 0;
+        }
+        double turn =
+                Math.abs(MathUtil.angleModulus(Math.atan2(y, x) - Math.atan2(startY, startX)));
+        return Math.min(turn, Math.PI - turn);
+    }
+
+    private double moduleVx(double vx, double omega, int i) {
+        return vx - omega * moduleY[i];
+    }
+
+    private double moduleVy(double vy, double omega, int i) {
+        return vy + omega * moduleX[i];
+    }
+}
@@ -13,14 +13,12 @@ import com.pathplanner.lib.controllers.PPHolonomicDriveController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
-import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.system.plant.DCMotor;
 import edu.wpi.first.math.util.Units;
 import edu.wpi.first.networktables.NTSendable;
 import edu.wpi.first.networktables.NTSendableBuilder;
-import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.networktables.StructArrayPublisher;
 import edu.wpi.first.util.sendable.Sendable;
 import edu.wpi.first.util.sendable.SendableBuilder;
 import edu.wpi.first.util.sendable.SendableRegistry;
@@ -28,13 +26,17 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
 import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.crescendo.Field;
+import frc.crescendo.FieldZones;
 import frc.robot.Robot;
+import frc.spectrumLib.CachedObject;
 import frc.spectrumLib.SpectrumSubsystem;
 import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.profiling.LoopProfiler;
 import frc.spectrumLib.util.Util;
 import java.util.function.DoubleSupplier;
 import java.util.function.Supplier;
@@ -48,22 +50,33 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
     private SwerveConfig config;
     private Notifier simNotifier = null;
     private double lastSimTime;
+
+    /* Where the simulated robot really is, odometry from the sim thread without any vision */
+    private final Object simPoseLock = new Object();
+    private Pose2d simPose = new Pose2d();
     private RotationController rotationController;
+    private final LoopProfiler.Section periodicProfile = LoopProfiler.section("Swerve/periodic");
+
+    /* Read from the drivetrain once per loop, kept on the field */
+    private final CachedObject<Pose2d> robotPose;
+    private boolean poseOffField = false;
+
+    /* Every odometry update for the last ~2 seconds, for latency compensation */
+    @Getter private final PoseHistory poseHistory = new PoseHistory(512);
 
-    @Getter
-    protected SwerveModuleState[] setpoints =
-            new SwerveModuleState[] {}; // This currently doesn't do anything
+    /* Limits how fast the pilot's drive commands can change, see SwerveStates */
+    @Getter private final SetpointGenerator setpointGenerator;
 
     /* Keep track if we've ever applied the operator perspective before or not */
     private boolean hasAppliedPilotPerspective = false;
 
     private final SwerveRequest.ApplyRobotSpeeds AutoRequest = new SwerveRequest.ApplyRobotSpeeds();
 
-    // Logging publisher
-    StructArrayPublisher<SwerveModuleState> publisher =
-            NetworkTableInstance.getDefault()
-                    .getStructArrayTopic("SwerveStates", SwerveModuleState.struct)
-                    .publish();
+    // Full rate to the log, decimated to NetworkTables
+    @Getter private final SwerveTelemetry telemetry = new SwerveTelemetry(getModules().length);
+
+    // What PathPlanner follows paths with, see configurePathPlanner()
+    @Getter private RobotConfig robotConfig;
 
     /**
      * Constructs a new Swerve drive subsystem.
@@ -75,7 +88,10 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
         super(config.getDrivetrainConstants(), config.getModules());
         // this.robotConfig = robotConfig;
         this.config = config;
+        robotPose = new CachedObject<>(this::readRobotPose);
+        FieldZones.setPoseSupplier(this::getRobotPose);
         configurePathPlanner();
+        setpointGenerator = new SetpointGenerator(config, robotConfig, getModuleLocations());
 
         rotationController = new RotationController(config);
 
@@ -91,8 +107,10 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
         Telemetry.print(getName() + " Subsystem Initialized: ");
     }
 
+    // Called by the odometry thread after every update
     protected void log(SwerveDriveState state) {
-        publisher.set(state.ModuleStates);
+        poseHistory.add(state.Timestamp, state.Pose);
+        telemetry.record(state, setpointGenerator.getSetpoints());
     }
 
     /**
@@ -101,7 +119,11 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
      */
     @Override
     public void periodic() {
+        periodicProfile.start();
         setPilotPerspective();
+        keepPoseOnField();
+        telemetry.publish();
+        periodicProfile.stop();
     }
 
     public void setupStates() {
@@ -140,27 +162,26 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
     private void addModuleProperties(SendableBuilder builder, String moduleName, int moduleNumber) {
         builder.addDoubleProperty(
                 moduleName + " Angle",
-                () -> getModule(moduleNumber).getCurrentState().angle.getRadians(),
+                () -> telemetry.getModuleAngle(moduleNumber),
                 null);
         builder.addDoubleProperty(
                 moduleName + " Velocity",
-                () -> getModule(moduleNumber).getCurrentState().speedMetersPerSecond,
+                () -> telemetry.getModuleSpeed(moduleNumber),
                 null);
     }
 
     /**
-     * The function `getRobotPose` returns the robot's pose after checking and updating it.
+     * The robot's pose, read from the drivetrain once per loop and shared by every caller that
+     * loop. It is kept on the field, {@link #periodic()} resets the drivetrain if it wanders off.
      *
-     * @return The `getRobotPose` method is returning the robot's current pose after calling the
-     *     `seedCheckedPose` method with the current pose as an argument.
+     * @return The robot's current pose
      */
     public Pose2d getRobotPose() {
-        Pose2d pose = getState().Pose;
-        return keepPoseOnField(pose);
+        return robotPose.get();
     }
 
-    // Keep the robot on the field
-    private Pose2d keepPoseOnField(Pose2d pose) {
+    private Pose2d readRobotPose() {
+        Pose2d pose = getState().Pose;
         double halfRobot = config.getRobotLength() / 2;
         double x = pose.getX();
         double y = pose.getY();
@@ -168,13 +189,39 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
         double newX = Util.limit(x, halfRobot, Field.getFieldLength() - halfRobot);
         double newY = Util.limit(y, halfRobot, Field.getFieldWidth() - halfRobot);
 
-        if (x != newX || y != newY) {
+        poseOffField = x != newX || y != newY;
+        if (poseOffField) {
             pose = new Pose2d(new Translation2d(newX, newY), pose.getRotation());
-            resetPose(pose);
         }
         return pose;
     }
 
+    // Keep the robot on the field, done here instead of while a Trigger is reading the pose
+    private void keepPoseOnField() {
+        Pose2d pose = getRobotPose();
+        if (poseOffField) {
+            resetPose(pose);
+            poseOffField = false;
+        }
+    }
+
+    /**
+     * The rest of the loop sees the new pose, including the zone Triggers. Resetting the pose in
+     * sim also places the simulated robot there.
+     */
+    @Override
+    public void resetPose(Pose2d pose) {
+        super.resetPose(pose);
+        robotPose.invalidate();
+        FieldZones.invalidate();
+        Trigger.invalidateAll();
+        if (Utils.isSimulation()) {
+            synchronized (simPoseLock) {
+                simPose = pose;
+            }
+        }
+    }
+
     public Trigger inXzone(double minXmeter, double maxXmeter) {
         return new Trigger(
                 () -> Util.inRange(() -> getRobotPose().getX(), () -> minXmeter, () -> maxXmeter));
@@ -341,7 +388,7 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
                         DCMotor.getKrakenX60(1),
                         config.getSlipCurrent(),
                         1);
-        RobotConfig robotConfig = // Have directly call this to avoid name space problem
+        robotConfig = // Have directly call this to avoid name space problem
                 new RobotConfig(
                         Units.lbsToKilograms(150),
                         1,
@@ -372,19 +419,41 @@ public class Swerve extends SwerveDrivetrain implements SpectrumSubsystem, NTSen
     // Simulation
     // --------------------------------------------------------------------------------
     private void startSimThread() {
-        lastSimTime = Utils.getCurrentTimeSeconds();
+        /* Use the HAL clock so the sim runs once per HeadlessSim step */
+        lastSimTime = Timer.getFPGATimestamp();
 
         /* Run simulation at a faster rate so PID gains behave more reasonably */
         simNotifier =
                 new Notifier(
                         () -> {
-                            final double currentTime = Utils.getCurrentTimeSeconds();
+                            final double currentTime = Timer.getFPGATimestamp();
                             double deltaTime = currentTime - lastSimTime;
                             lastSimTime = currentTime;
 
                             /* use the measured time delta, get battery voltage from WPILib */
                             updateSimState(deltaTime, RobotController.getBatteryVoltage());
+                            updateSimPose(deltaTime);
                         });
         simNotifier.startPeriodic(config.getSimLoopPeriod());
     }
+
+    // The simulated wheels don't slip, so integrating their speeds gives the true pose
+    private void updateSimPose(double deltaTime) {
+        ChassisSpeeds speeds = getState().Speeds;
+        Twist2d twist =
+                new Twist2d(
+                        speeds.vxMetersPerSecond * deltaTime,
+                        speeds.vyMetersPerSecond * deltaTime,
+                        speeds.omegaRadiansPerSecond * deltaTime);
+        synchronized (simPoseLock) {
+            simPose = simPose.exp(twist);
+        }
+    }
+
+    /** @return where the simulated robot really is, for simulating sensors like cameras */
+    public Pose2d getSimPose() {
+        synchronized (simPoseLock) {
+            return simPose;
+        }
+    }
 }
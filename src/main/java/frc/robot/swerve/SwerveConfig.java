@@ -71,6 +71,9 @@ public class SwerveConfig {
     // This needs to be tuned to your individual robot
     @Getter @Setter private Current slipCurrent = Amps.of(120.0);
 
+    // Limits for the SetpointGenerator
+    @Getter @Setter private double maxSteerVelocity = Units.rotationsToRadians(3); // rad/s
+
     // Initial configs for the drive and steer motors and the CANcoder; these cannot be null.
     // Some configs will be overwritten; check the `with*InitialConfigs()` API documentation.
     @Getter private TalonFXConfiguration driveInitialConfigs = new TalonFXConfiguration();
@@ -54,8 +54,10 @@ public class SwerveStates {
                         pilotAimDrive(() -> Field.flipAimAngleIfBlue(270))
                                 .withName("Swerve.AimToAmp")));
 
-        // TODO:Should replace with method that gives us angle to the speaker
-        // speakerPrep.whileTrue(pilotAimDrive(() -> 0));
+        speakerPrep.whileTrue(
+                log(
+                        pilotAimDrive(Robot.getAimingSolver()::getHeading)
+                                .withName("Swerve.AimToSpeaker")));
 
         pilot.fpv_rs.whileTrue(log(fpvDrive()));
         pilot.snapSteer.whileTrue(log(snapSteerDrive()));
@@ -148,8 +150,8 @@ public class SwerveStates {
                 .withName("SetTargetHeading");
     }
 
-    private static final SwerveRequest.FieldCentric fieldCentricDrive =
-            new SwerveRequest.FieldCentric()
+    private static final SetpointGenerator fieldCentricDrive =
+            swerve.getSetpointGenerator()
                     .withDeadband(
                             config.getSpeedAt12Volts().in(MetersPerSecond) * config.getDeadband())
                     .withRotationalDeadband(config.getMaxAngularRate() * config.getDeadband())
@@ -0,0 +1,195 @@
+package frc.robot.swerve;
+
+import com.ctre.phoenix6.Utils;
+import com.ctre.phoenix6.swerve.SwerveDrivetrain.SwerveDriveState;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.IntegerPublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StructArrayPublisher;
+import edu.wpi.first.networktables.StructPublisher;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.spectrumLib.util.TripleBuffer;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Swerve drive state telemetry. The odometry thread copies every update into primitive buffers and
+ * appends it to the log file at full rate; the main loop publishes the newest update to
+ * NetworkTables every few loops, so dashboards don't see the odometry rate.
+ *
+ * <p>The odometry side never allocates. The NetworkTables side reuses its structs, only the pose
+ * and module angles are allocated when it publishes.
+ */
+public class SwerveTelemetry {
+    /** Publish to NetworkTables every this many main loops */
+    @Getter @Setter private int ntDecimation = 2;
+
+    /** One odometry update */
+    private static class Frame {
+        private final double[] pose = new double[3]; // x, y, heading radians
+        private final double[] speeds = new double[3]; // robot relative vx, vy, omega
+        private final double[] modules; // speed, angle radians for each module
+        private final double[] targets;
+        private final double[] setpoints; // from the SetpointGenerator
+        private double odometryPeriod;
+        private int failedDaqs;
+
+        private Frame(int moduleCount) {
+            modules = new double[moduleCount * 2];
+            targets = new double[moduleCount * 2];
+            setpoints = new double[moduleCount * 2];
+        }
+    }
+
+    private final int moduleCount;
+    private final TripleBuffer<Frame> frames;
+    private int loops = 0;
+
+    /* Full rate, written by the odometry thread */
+    private final DoubleArrayLogEntry poseLog;
+    private final DoubleArrayLogEntry speedsLog;
+    private final DoubleArrayLogEntry modulesLog;
+    private final DoubleArrayLogEntry targetsLog;
+    private final DoubleArrayLogEntry setpointsLog;
+    private final DoubleLogEntry odometryPeriodLog;
+
+    /* Decimated, written by the main loop */
+    private final StructPublisher<Pose2d> posePublisher;
+    private final StructPublisher<ChassisSpeeds> speedsPublisher;
+    private final StructArrayPublisher<SwerveModuleState> modulesPublisher;
+    private final StructArrayPublisher<SwerveModuleState> targetsPublisher;
+    private final StructArrayPublisher<SwerveModuleState> setpointsPublisher;
+    private final DoublePublisher odometryFrequencyPublisher;
+    private final IntegerPublisher failedDaqsPublisher;
+    private final ChassisSpeeds speeds = new ChassisSpeeds();
+    private final SwerveModuleState[] moduleStates;
+    private final SwerveModuleState[] targetStates;
+    private final SwerveModuleState[] setpointStates;
+
+    public SwerveTelemetry(int moduleCount) {
+        this.moduleCount = moduleCount;
+        frames = new TripleBuffer<>(() -> new Frame(moduleCount));
+
+        DataLog log = DataLogManager.getLog();
+        poseLog = new DoubleArrayLogEntry(log, "Swerve/pose");
+        speedsLog = new DoubleArrayLogEntry(log, "Swerve/speeds");
+        modulesLog = new DoubleArrayLogEntry(log, "Swerve/moduleStates");
+        targetsLog = new DoubleArrayLogEntry(log, "Swerve/moduleTargets");
+        setpointsLog = new DoubleArrayLogEntry(log, "Swerve/setpoints");
+        odometryPeriodLog = new DoubleLogEntry(log, "Swerve/odometryPeriod");
+
+        NetworkTable table = NetworkTableInstance.getDefault().getTable("Swerve");
+        posePublisher = table.getStructTopic("Pose", Pose2d.struct).publish();
+        speedsPublisher = table.getStructTopic("Speeds", ChassisSpeeds.struct).publish();
+        modulesPublisher =
+                table.getStructArrayTopic("ModuleStates", SwerveModuleState.struct).publish();
+        targetsPublisher =
+                table.getStructArrayTopic("ModuleTargets", SwerveModuleState.struct).publish();
+        setpointsPublisher =
+                table.getStructArrayTopic("Setpoints", SwerveModuleState.struct).publish();
+        odometryFrequencyPublisher = table.getDoubleTopic("OdometryFrequency").publish();
+        failedDaqsPublisher = table.getIntegerTopic("FailedDaqs").publish();
+
+        moduleStates = new SwerveModuleState[moduleCount];
+        targetStates = new SwerveModuleState[moduleCount];
+        setpointStates = new SwerveModuleState[moduleCount];
+        for (int i = 0; i < moduleCount; i++) {
+            moduleStates[i] = new SwerveModuleState();
+            targetStates[i] = new SwerveModuleState();
+            setpointStates[i] = new SwerveModuleState();
+        }
+    }
+
+    /**
+     * Called by the odometry thread after every update
+     *
+     * @param state the drivetrain state
+     * @param setpoints the {@link SetpointGenerator}'s last module setpoints, also written by the
+     *     odometry thread
+     */
+    public void record(SwerveDriveState state, SwerveModuleState[] setpoints) {
+        Frame frame = frames.getWriteBuffer();
+        frame.pose[0] = state.Pose.getX();
+        frame.pose[1] = state.Pose.getY();
+        frame.pose[2] = state.Pose.getRotation().getRadians();
+        frame.speeds[0] = state.Speeds.vxMetersPerSecond;
+        frame.speeds[1] = state.Speeds.vyMetersPerSecond;
+        frame.speeds[2] = state.Speeds.omegaRadiansPerSecond;
+        copy(state.ModuleStates, frame.modules);
+        copy(state.ModuleTargets, frame.targets);
+        copy(setpoints, frame.setpoints);
+        frame.odometryPeriod = state.OdometryPeriod;
+        frame.failedDaqs = state.FailedDaqs;
+
+        // The state is stamped in the Phoenix timebase, the log uses the FPGA's
+        double age = Utils.getCurrentTimeSeconds() - state.Timestamp;
+        long timestamp = RobotController.getFPGATime() - (long) (age * 1e6);
+        poseLog.append(frame.pose, timestamp);
+        speedsLog.append(frame.speeds, timestamp);
+        modulesLog.append(frame.modules, timestamp);
+        targetsLog.append(frame.targets, timestamp);
+        setpointsLog.append(frame.setpoints, timestamp);
+        odometryPeriodLog.append(frame.odometryPeriod, timestamp);
+        frames.publish();
+    }
+
+    /** Called by the main loop, publishes the newest update every {@link #ntDecimation} loops */
+    public void publish() {
+        if (++loops < ntDecimation || !frames.update()) {
+            return;
+        }
+        loops = 0;
+        Frame frame = frames.getReadBuffer();
+        posePublisher.set(
+                new Pose2d(frame.pose[0], frame.pose[1], new Rotation2d(frame.pose[2])));
+        speeds.vxMetersPerSecond = frame.speeds[0];
+        speeds.vyMetersPerSecond = frame.speeds[1];
+        speeds.omegaRadiansPerSecond = frame.speeds[2];
+        speedsPublisher.set(speeds);
+        fill(frame.modules, moduleStates);
+        modulesPublisher.set(moduleStates);
+        fill(frame.targets, targetStates);
+        targetsPublisher.set(targetStates);
+        fill(frame.setpoints, setpointStates);
+        setpointsPublisher.set(setpointStates);
+        odometryFrequencyPublisher.set(
+                frame.odometryPeriod > 0 ? 1.0 / frame.odometryPeriod : 0);
+        failedDaqsPublisher.set(frame.failedDaqs);
+    }
+
+    /** @return the module's speed as of the last publish, m/s */
+    public double getModuleSpeed(int module) {
+        return moduleStates[module].speedMetersPerSecond;
+    }
+
+    /** @return the module's angle as of the last publish, radians */
+    public double getModuleAngle(int module) {
+        return moduleStates[module].angle.getRadians();
+    }
+
+    private void copy(SwerveModuleState[] states, double[] out) {
+        if (states == null) {
+            return;
+        }
+        for (int i = 0; i < moduleCount && i < states.length; i++) {
+            out[i * 2] = states[i].speedMetersPerSecond;
+            out[i * 2 + 1] = states[i].angle.getRadians();
+        }
+    }
+
+    private void fill(double[] values, SwerveModuleState[] states) {
+        for (int i = 0; i < moduleCount; i++) {
+            states[i].speedMetersPerSecond = values[i * 2];
+            states[i].angle = new Rotation2d(values[i * 2 + 1]);
+        }
+    }
+}
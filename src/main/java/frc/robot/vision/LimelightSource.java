@@ -0,0 +1,57 @@
+package frc.robot.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import frc.spectrumLib.vision.Limelight;
+import frc.spectrumLib.vision.LimelightHelpers.PoseEstimate;
+import frc.spectrumLib.vision.LimelightHelpers.RawFiducial;
+
+/**
+ * Feeds MEGATAG2 pose estimates from a Limelight. MEGATAG2 uses the heading we send it, so the
+ * measurement's heading is not trusted.
+ */
+public class LimelightSource implements VisionSource {
+    private final Limelight limelight;
+
+    public LimelightSource(Limelight limelight) {
+        this.limelight = limelight;
+    }
+
+    @Override
+    public String getName() {
+        return limelight.getName();
+    }
+
+    @Override
+    public boolean update(Pose2d robotPose, VisionMeasurement measurement) {
+        if (!limelight.isAttached()) {
+            return false;
+        }
+        limelight.setRobotOrientation(robotPose.getRotation().getDegrees());
+
+        if (!limelight.hasNewMegaPoseFrame()) {
+            return false;
+        }
+        PoseEstimate estimate = limelight.getMegaPoseEstimate();
+        if (estimate.tagCount == 0) {
+            return false;
+        }
+
+        double ambiguity = 0;
+        RawFiducial[] fiducials = estimate.rawFiducials;
+        for (int i = 0; i < fiducials.length; i++) {
+            if (fiducials[i] != null && fiducials[i].ambiguity > ambiguity) {
+                ambiguity = fiducials[i].ambiguity;
+            }
+        }
+
+        measurement.set(
+                getName(),
+                estimate.pose,
+                estimate.timestampSeconds,
+                estimate.tagCount,
+                estimate.avgTagDist,
+                ambiguity,
+                false);
+        return true;
+    }
+}
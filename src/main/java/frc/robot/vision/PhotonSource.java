@@ -0,0 +1,74 @@
+package frc.robot.vision;
+
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Transform3d;
+import java.util.List;
+import java.util.Optional;
+import org.photonvision.EstimatedRobotPose;
+import org.photonvision.PhotonCamera;
+import org.photonvision.PhotonPoseEstimator;
+import org.photonvision.PhotonPoseEstimator.PoseStrategy;
+import org.photonvision.targeting.PhotonPipelineResult;
+import org.photonvision.targeting.PhotonTrackedTarget;
+
+/** Feeds multi-tag pose estimates from a PhotonVision camera */
+public class PhotonSource implements VisionSource {
+    private final PhotonCamera camera;
+    private final PhotonPoseEstimator estimator;
+
+    public PhotonSource(
+            PhotonCamera camera, AprilTagFieldLayout layout, Transform3d robotToCamera) {
+        this.camera = camera;
+        estimator =
+                new PhotonPoseEstimator(
+                        layout, PoseStrategy.MULTI_TAG_PNP_ON_COPROCESSOR, robotToCamera);
+        estimator.setMultiTagFallbackStrategy(PoseStrategy.LOWEST_AMBIGUITY);
+    }
+
+    @Override
+    public String getName() {
+        return camera.getName();
+    }
+
+    @Override
+    public boolean update(Pose2d robotPose, VisionMeasurement measurement) {
+        // Only the newest frame is used, older unread frames are skipped
+        List<PhotonPipelineResult> results = camera.getAllUnreadResults();
+        if (results.isEmpty()) {
+            return false;
+        }
+        PhotonPipelineResult result = results.get(results.size() - 1);
+        if (!result.hasTargets()) {
+            return false;
+        }
+        Optional<EstimatedRobotPose> estimate = estimator.update(result);
+        if (estimate.isEmpty()) {
+            return false;
+        }
+
+        List<PhotonTrackedTarget> targets = estimate.get().targetsUsed;
+        int tagCount = targets.size();
+        double distance = 0;
+        double ambiguity = 0;
+        for (int i = 0; i < tagCount; i++) {
+            PhotonTrackedTarget target = targets.get(i);
+            distance += target.getBestCameraToTarget().getTranslation().getNorm();
+            ambiguity = Math.max(ambiguity, target.getPoseAmbiguity());
+        }
+        if (tagCount > 1) {
+            // Multi-tag solves don't have an ambiguity, the per-tag values don't apply
+            ambiguity = 0;
+        }
+
+        measurement.set(
+                getName(),
+                estimate.get().estimatedPose.toPose2d(),
+                estimate.get().timestampSeconds,
+                tagCount,
+                tagCount > 0 ? distance / tagCount : 0,
+                ambiguity,
+                true);
+        return tagCount > 0;
+    }
+}
@@ -0,0 +1,45 @@
+package frc.robot.vision;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+
+/**
+ * One pose measurement from a camera, filled in by a {@link VisionSource} and reused every loop.
+ * VisionSystem fills in the standard deviations and decides if it gets used.
+ */
+public class VisionMeasurement {
+    String source = "";
+    Pose2d pose = new Pose2d();
+    /** FPGA time the frame was captured, seconds */
+    double timestampSeconds;
+
+    int tagCount;
+    /** Average distance from the camera to the tags used, meters */
+    double avgTagDistance;
+    /** Worst pose ambiguity of the tags used, 0 for multi-tag solves that don't report one */
+    double ambiguity;
+    /** If the heading came from the camera instead of being seeded from the gyro */
+    boolean measuresHeading;
+
+    final Matrix<N3, N1> stdDevs = new Matrix<>(Nat.N3(), Nat.N1());
+
+    void set(
+            String source,
+            Pose2d pose,
+            double timestampSeconds,
+            int tagCount,
+            double avgTagDistance,
+            double ambiguity,
+            boolean measuresHeading) {
+        this.source = source;
+        this.pose = pose;
+        this.timestampSeconds = timestampSeconds;
+        this.tagCount = tagCount;
+        this.avgTagDistance = avgTagDistance;
+        this.ambiguity = ambiguity;
+        this.measuresHeading = measuresHeading;
+    }
+}
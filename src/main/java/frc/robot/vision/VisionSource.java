@@ -0,0 +1,18 @@
+package frc.robot.vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+
+/** A camera that can produce robot pose measurements for {@link VisionSystem} */
+public interface VisionSource {
+
+    String getName();
+
+    /**
+     * Called once per loop, fill in the measurement with the newest frame from the camera
+     *
+     * @param robotPose the current estimated pose, for cameras that need the robot heading
+     * @param measurement the measurement to fill in
+     * @return true if there was a new frame with at least one tag, false to skip this source
+     */
+    boolean update(Pose2d robotPose, VisionMeasurement measurement);
+}
@@ -1,23 +1,59 @@
 // See: https://docs.photonvision.org/en/latest/docs/simulation/simulation.html
 package frc.robot.vision;
 
+import com.ctre.phoenix6.Utils;
 import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.apriltag.AprilTagFields;
+import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.geometry.Transform3d;
 import edu.wpi.first.math.geometry.Translation3d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.crescendo.Field;
+import frc.robot.swerve.PoseHistory;
+import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.vision.Limelight;
+import frc.spectrumLib.vision.Limelight.LimelightConfig;
 import java.io.IOException;
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.Setter;
 import org.photonvision.PhotonCamera;
 import org.photonvision.simulation.PhotonCameraSim;
 import org.photonvision.simulation.SimCameraProperties;
 import org.photonvision.simulation.VisionSystemSim;
 
+/**
+ * Fuses pose measurements from the robot's Limelights, and a simulated PhotonVision camera in
+ * simulation, into the swerve pose estimator. Every loop each {@link VisionSource} gives us its
+ * newest frame, we score it with standard deviations based on tag count, distance and ambiguity,
+ * throw out frames that disagree with odometry, and add the rest to the drivetrain oldest first.
+ */
 public class VisionSystem extends SubsystemBase {
-    private final PhotonCamera camera = new PhotonCamera("cameraName");
-    private final VisionSystemSim visionSim = new VisionSystemSim("main");
+    /* Simulated PhotonVision camera, only in simulation */
+    private PhotonCamera camera;
+    private VisionSystemSim visionSim;
     private final Pose2dSupplier getSimPose;
+    private final Pose2dSupplier getRobotPose;
+    private final VisionMeasurementConsumer addVisionMeasurement;
+    private final PoseHistory poseHistory;
+    private final double[] pastPose = new double[3];
+    private AprilTagFieldLayout tagLayout;
+
+    @Getter private final FusionConfig fusionConfig = new FusionConfig();
+    private VisionSource[] sources = new VisionSource[0];
+    private VisionMeasurement[] measurements = new VisionMeasurement[0];
+    private VisionMeasurement[] accepted = new VisionMeasurement[0];
+
+    /* Counters */
+    @Getter private long acceptedCount = 0;
+    @Getter private long rejectedCount = 0;
+    private int consecutiveOdometryRejects = 0;
 
     Transform3d robotToCamera =
             new Transform3d(
@@ -29,9 +65,67 @@ public class VisionSystem extends SubsystemBase {
         Pose2d getPose2d();
     }
 
-    public VisionSystem(Pose2dSupplier getSimPose) {
+    /** Matches SwerveDrivetrain.addVisionMeasurement(pose, timestamp, stdDevs) */
+    @FunctionalInterface
+    public interface VisionMeasurementConsumer {
+        void accept(Pose2d pose, double timestampSeconds, Matrix<N3, N1> stdDevs);
+    }
+
+    /** Tuning for how much we trust each measurement and which ones we throw out */
+    public static class FusionConfig {
+        /** X/Y std dev in meters of a single tag seen from 1 meter away */
+        @Getter @Setter private double xyStdDevBase = 0.1;
+        /** Heading std dev in radians of a single tag seen from 1 meter away */
+        @Getter @Setter private double thetaStdDevBase = 0.2;
+        /** How much a fully ambiguous tag scales up the std devs */
+        @Getter @Setter private double ambiguityScale = 4;
+
+        /** Single tag measurements with more ambiguity than this are thrown out */
+        @Getter @Setter private double maxAmbiguity = 0.2;
+        /** Measurements with tags further than this are thrown out, meters */
+        @Getter @Setter private double maxTagDistance = 6;
+        /** Measurements further than this from odometry are thrown out, meters */
+        @Getter @Setter private double maxOdometryError = 1;
+        /**
+         * After this many loops of odometry rejections in a row, trust multi-tag measurements again
+         * so a bad odometry pose can be corrected
+         */
+        @Getter @Setter private int odometryRejectResetLoops = 25;
+    }
+
+    /**
+     * @param limelights the robot's Limelights, detached ones are skipped
+     * @param getRobotPose the current odometry pose
+     * @param addVisionMeasurement adds accepted measurements to the pose estimator
+     * @param poseHistory odometry poses by time, measurements are checked against where the robot
+     *     was when the frame was captured
+     * @param getSimPose where the simulated robot really is, the simulated camera sees the field
+     *     from there
+     */
+    public VisionSystem(
+            LimelightConfig[] limelights,
+            Pose2dSupplier getRobotPose,
+            VisionMeasurementConsumer addVisionMeasurement,
+            PoseHistory poseHistory,
+            Pose2dSupplier getSimPose) {
+        this.getRobotPose = getRobotPose;
+        this.addVisionMeasurement = addVisionMeasurement;
+        this.poseHistory = poseHistory;
         this.getSimPose = getSimPose;
 
+        for (LimelightConfig limelight : limelights) {
+            addSource(new LimelightSource(new Limelight(limelight)));
+        }
+
+        if (RobotBase.isSimulation()) {
+            setupSimCamera();
+        }
+    }
+
+    private void setupSimCamera() {
+        camera = new PhotonCamera("cameraName");
+        visionSim = new VisionSystemSim("main");
+
         // Setup simulated camera properties
         SimCameraProperties props = new SimCameraProperties();
         props.setCalibError(0.25, 0.08);
@@ -49,18 +143,144 @@ public class VisionSystem extends SubsystemBase {
 
         // Add AprilTags to vision sim
         try {
-            AprilTagFieldLayout tagLayout =
+            tagLayout =
                     AprilTagFieldLayout.loadFromResource(
                             AprilTagFields.k2024Crescendo.m_resourceFile);
             visionSim.addAprilTags(tagLayout);
+            addSource(new PhotonSource(camera, tagLayout, robotToCamera));
         } catch (IOException e) {
             System.err.println(e);
         }
     }
 
+    /** Add a camera to fuse into the pose estimate */
+    public void addSource(VisionSource source) {
+        int n = sources.length;
+        sources = Arrays.copyOf(sources, n + 1);
+        sources[n] = source;
+        measurements = Arrays.copyOf(measurements, n + 1);
+        measurements[n] = new VisionMeasurement();
+        accepted = Arrays.copyOf(accepted, n + 1);
+    }
+
+    @Override
+    public void periodic() {
+        long start = System.nanoTime();
+        Pose2d odometryPose = getRobotPose.getPose2d();
+
+        int count = 0;
+        int rejected = 0;
+        boolean odometryRejected = false;
+        for (int i = 0; i < sources.length; i++) {
+            VisionMeasurement measurement = measurements[i];
+            if (!sources[i].update(odometryPose, measurement)) {
+                continue;
+            }
+            int reason = reject(measurement, odometryPose);
+            if (reason == REJECT_ODOMETRY) {
+                odometryRejected = true;
+            }
+            if (reason != ACCEPT) {
+                rejected++;
+                continue;
+            }
+            calculateStdDevs(measurement);
+            // Insertion sort by capture time, there are only a few cameras
+            int j = count++;
+            while (j > 0 && accepted[j - 1].timestampSeconds > measurement.timestampSeconds) {
+                accepted[j] = accepted[j - 1];
+                j--;
+            }
+            accepted[j] = measurement;
+        }
+        consecutiveOdometryRejects = odometryRejected ? consecutiveOdometryRejects + 1 : 0;
+
+        double now = Timer.getFPGATimestamp();
+        double maxLatency = 0;
+        for (int i = 0; i < count; i++) {
+            VisionMeasurement measurement = accepted[i];
+            addVisionMeasurement.accept(
+                    measurement.pose,
+                    Utils.fpgaToCurrentTime(measurement.timestampSeconds),
+                    measurement.stdDevs);
+            maxLatency = Math.max(maxLatency, now - measurement.timestampSeconds);
+        }
+
+        acceptedCount += count;
+        rejectedCount += rejected;
+        long total = acceptedCount + rejectedCount;
+        Telemetry.log("Vision/Fusion/accepted", acceptedCount);
+        Telemetry.log("Vision/Fusion/rejected", rejectedCount);
+        Telemetry.log(
+                "Vision/Fusion/acceptanceRate", total > 0 ? (double) acceptedCount / total : 0);
+        Telemetry.log("Vision/Fusion/measurementLatencyMs", maxLatency * 1000);
+        Telemetry.log("Vision/Fusion/fusionMs", (System.nanoTime() - start) / 1e6);
+    }
+
+    private static final int ACCEPT = 0;
+    private static final int REJECT_QUALITY = 1;
+    private static final int REJECT_ODOMETRY = 2;
+
+    private int reject(VisionMeasurement measurement, Pose2d odometryPose) {
+        if (measurement.tagCount == 0) {
+            return REJECT_QUALITY;
+        }
+        if (measurement.tagCount == 1 && measurement.ambiguity > fusionConfig.maxAmbiguity) {
+            return REJECT_QUALITY;
+        }
+        if (measurement.avgTagDistance > fusionConfig.maxTagDistance) {
+            return REJECT_QUALITY;
+        }
+
+        double x = measurement.pose.getX();
+        double y = measurement.pose.getY();
+        if (x < 0 || x > Field.getFieldLength() || y < 0 || y > Field.getFieldWidth()) {
+            return REJECT_QUALITY;
+        }
+
+        // Compare against odometry from when the frame was captured, not from now
+        double odometryX = odometryPose.getX();
+        double odometryY = odometryPose.getY();
+        if (poseHistory.poseAtFpga(measurement.timestampSeconds, pastPose)) {
+            odometryX = pastPose[0];
+            odometryY = pastPose[1];
+        }
+        double error = Math.hypot(x - odometryX, y - odometryY);
+        if (error > fusionConfig.maxOdometryError) {
+            // If odometry has disagreed with vision for a while, odometry is probably what's wrong
+            boolean resync =
+                    measurement.tagCount > 1
+                            && consecutiveOdometryRejects >= fusionConfig.odometryRejectResetLoops;
+            if (!resync) {
+                return REJECT_ODOMETRY;
+            }
+        }
+        return ACCEPT;
+    }
+
+    /** Std devs grow with the square of the tag distance and shrink with the number of tags */
+    private void calculateStdDevs(VisionMeasurement measurement) {
+        double distance = Math.max(measurement.avgTagDistance, 1);
+        double scale =
+                distance
+                        * distance
+                        / measurement.tagCount
+                        * (1 + fusionConfig.ambiguityScale * measurement.ambiguity);
+        measurement.stdDevs.set(0, 0, fusionConfig.xyStdDevBase * scale);
+        measurement.stdDevs.set(1, 0, fusionConfig.xyStdDevBase * scale);
+        measurement.stdDevs.set(
+                2,
+                0,
+                measurement.measuresHeading
+                        ? fusionConfig.thetaStdDevBase * scale
+                        : 9999999); // heading came from our gyro, don't feed it back
+    }
+
     @Override
     public void simulationPeriodic() {
-        // Update the vision system with the simulated robot pose
-        visionSim.update(getSimPose.getPose2d());
+        // The camera sees the field from where the robot really is, not where we think it is
+        if (visionSim != null) {
+            visionSim.update(getSimPose.getPose2d());
+        }
     }
 }
@@ -0,0 +1,31 @@
+package frc.spectrumLib;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * CachedBoolean allows for a value to only be checked once per periodic loop if it is called by
+ * multiple methods. The value is read the first time it is used in a loop and reused until the
+ * {@link LoopEpoch} is advanced at the start of the next loop.
+ */
+public class CachedBoolean implements BooleanSupplier {
+
+    private long epoch;
+    private boolean value;
+    private final BooleanSupplier canCall;
+
+    public CachedBoolean(BooleanSupplier canCall) {
+        this.canCall = canCall;
+        value = canCall.getAsBoolean();
+        epoch = LoopEpoch.get();
+    }
+
+    @Override
+    public boolean getAsBoolean() {
+        long current = LoopEpoch.get();
+        if (epoch != current) {
+            value = canCall.getAsBoolean();
+            epoch = current;
+        }
+        return value;
+    }
+}
@@ -1,36 +1,30 @@
 package frc.spectrumLib;
 
-import edu.wpi.first.wpilibj2.command.Subsystem;
 import java.util.function.DoubleSupplier;
 
 /**
  * CachedDouble allows for a value to only be checked once per periodic loop if it is called by
- * multiple methods. Periodic is run first, so the value will be updated before it is used in any
- * Triggers or Command
+ * multiple methods. The value is read the first time it is used in a loop and reused until the
+ * {@link LoopEpoch} is advanced at the start of the next loop.
  */
-public class CachedDouble implements DoubleSupplier, Subsystem {
+public class CachedDouble implements DoubleSupplier {
 
-    private boolean isCached;
+    private long epoch;
     private double value;
-    private DoubleSupplier canCall;
+    private final DoubleSupplier canCall;
 
     public CachedDouble(DoubleSupplier canCall) {
         this.canCall = canCall;
         value = canCall.getAsDouble();
-        isCached = true;
-        this.register();
-    }
-
-    @Override
-    public void periodic() {
-        isCached = false;
+        epoch = LoopEpoch.get();
     }
 
     @Override
     public double getAsDouble() {
-        if (!isCached) {
+        long current = LoopEpoch.get();
+        if (epoch != current) {
             value = canCall.getAsDouble();
-            isCached = true;
+            epoch = current;
         }
         return value;
     }
@@ -0,0 +1,36 @@
+package frc.spectrumLib;
+
+import java.util.function.Supplier;
+
+/**
+ * CachedObject allows for an object, such as a Pose2d, to only be created once per periodic loop
+ * if it is used by multiple methods. The value is read the first time it is used in a loop and
+ * reused until the {@link LoopEpoch} is advanced at the start of the next loop.
+ */
+public class CachedObject<T> implements Supplier<T> {
+
+    private long epoch;
+    private T value;
+    private final Supplier<T> canCall;
+
+    public CachedObject(Supplier<T> canCall) {
+        this.canCall = canCall;
+        value = canCall.get();
+        epoch = LoopEpoch.get();
+    }
+
+    @Override
+    public T get() {
+        long current = LoopEpoch.get();
+        if (epoch != current) {
+            value = canCall.get();
+            epoch = current;
+        }
+        return value;
+    }
+
+    /** Read the value again the next time it is used, for when it changes during a loop */
+    public void invalidate() {
+        epoch = -1;
+    }
+}
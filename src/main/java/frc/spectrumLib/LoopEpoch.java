@@ -0,0 +1,27 @@
+package frc.spectrumLib;
+
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+
+/**
+ * Global counter of robot loops. It is advanced once at the start of every loop by {@link
+ * SpectrumRobot#loopFunc}, before any mode code, so anything that caches a value for one loop
+ * (CachedDouble, CachedBoolean, CachedObject) can check if its value is stale by comparing the
+ * epoch it was read in against the current one. Advancing also invalidates the memoized value of
+ * every Trigger.
+ */
+public class LoopEpoch {
+    private static long epoch = 0;
+
+    private LoopEpoch() {}
+
+    /** Start a new loop, invalidating every cached value. Call once at the top of the loop. */
+    public static void advance() {
+        epoch++;
+        Trigger.invalidateAll();
+    }
+
+    /** @return the current loop number */
+    public static long get() {
+        return epoch;
+    }
+}
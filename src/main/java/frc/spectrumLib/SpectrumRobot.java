@@ -18,6 +18,20 @@ public class SpectrumRobot extends TimedRobot {
         DriverStation.silenceJoystickConnectionWarning(true);
     }
 
+    /**
+     * Start a new {@link LoopEpoch} before any of the loop's code runs, so the mode's init and
+     * periodic methods read this loop's Triggers and cached values, not the last loop's.
+     */
+    @Override
+    protected void loopFunc() {
+        LoopEpoch.advance();
+        loopStart();
+        super.loopFunc();
+    }
+
+    /** Called at the top of every loop after the epoch advances, before any mode code */
+    protected void loopStart() {}
+
     protected void setupDefaultCommands() {
         // Setup Default Commands for all subsystems
         subsystems.forEach(SpectrumSubsystem::setupDefaultCommand);
@@ -82,5 +82,7 @@ public class SpectrumState extends Trigger {
      */
     protected static void setCondition(String name, boolean value) {
         stateConditions.put(name, value);
+        // Triggers built on this state may have already been polled this loop
+        Trigger.invalidateAll();
     }
 }
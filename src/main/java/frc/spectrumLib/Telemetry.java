@@ -10,6 +10,8 @@ import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.spectrumLib.profiling.LoopProfiler;
+import frc.spectrumLib.profiling.ProfiledCommand;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +38,8 @@ public class Telemetry extends DogLog implements Subsystem {
 
     private static PrintPriority priority = PrintPriority.HIGH;
 
+    private final LoopProfiler.Section periodicProfile = LoopProfiler.section("Telemetry/periodic");
+
     public Telemetry() {
         super();
         register();
@@ -43,7 +47,9 @@ public class Telemetry extends DogLog implements Subsystem {
 
     @Override
     public void periodic() {
+        periodicProfile.start();
         logAlerts();
+        periodicProfile.stop();
     }
 
     public static void start(boolean ntPublish, boolean captureNt, PrintPriority priority) {
@@ -64,11 +70,13 @@ public class Telemetry extends DogLog implements Subsystem {
         Telemetry.priority = priority;
     }
 
+    /** Log when the command starts and ends, and profile the time spent in its execute() */
     public static Command log(Command cmd) {
-        return cmd.deadlineFor(
-                Commands.startEnd(
-                        () -> log("Commands", "Init: " + cmd.getName()),
-                        () -> log("Commands", "End: " + cmd.getName())));
+        return new ProfiledCommand(cmd)
+                .deadlineFor(
+                        Commands.startEnd(
+                                () -> log("Commands", "Init: " + cmd.getName()),
+                                () -> log("Commands", "End: " + cmd.getName())));
     }
 
     /** Print a statement if they are enabled */
@@ -13,6 +13,7 @@ import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.spectrumLib.SpectrumSubsystem;
 import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.profiling.LoopProfiler;
 import frc.spectrumLib.util.ExpCurve;
 import frc.spectrumLib.util.Util;
 import java.util.function.DoubleSupplier;
@@ -100,6 +101,7 @@ public abstract class Gamepad implements SpectrumSubsystem {
     }
 
     private Config config;
+    private final LoopProfiler.Section periodicProfile;
 
     /**
      * Constructs a Gamepad object with the specified configuration.
@@ -112,6 +114,7 @@ public abstract class Gamepad implements SpectrumSubsystem {
      */
     protected Gamepad(Config config) {
         this.config = config;
+        periodicProfile = LoopProfiler.section(config.name + "/periodic");
         disconnectedAlert =
                 new Alert(config.name + " Gamepad Disconnected", Alert.AlertType.kError);
 
@@ -172,7 +175,9 @@ public abstract class Gamepad implements SpectrumSubsystem {
 
     @Override
     public void periodic() {
+        periodicProfile.start();
         configure();
+        periodicProfile.stop();
     }
 
     // Configure the pilot controller
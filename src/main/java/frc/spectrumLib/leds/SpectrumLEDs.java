@@ -18,6 +18,7 @@ import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.spectrumLib.SpectrumRobot;
 import frc.spectrumLib.SpectrumSubsystem;
+import frc.spectrumLib.profiling.LoopProfiler;
 import java.util.Map;
 import java.util.function.DoubleSupplier;
 import lombok.Getter;
@@ -67,6 +68,7 @@ public class SpectrumLEDs implements SpectrumSubsystem {
     @Getter protected final AddressableLEDBuffer ledBuffer;
     @Getter protected final AddressableLEDBufferView ledView;
     private boolean mainView = false;
+    private final LoopProfiler.Section periodicProfile;
 
     protected final LEDPattern defaultPattern = blink(Color.kOrange, 1);
 
@@ -83,6 +85,7 @@ public class SpectrumLEDs implements SpectrumSubsystem {
 
     public SpectrumLEDs(Config config) {
         this.config = config;
+        periodicProfile = LoopProfiler.section(config.getName() + "/periodic");
 
         // Must be a PWM header, not MXP or DIO
         if (config.getLed() == null) {
@@ -108,10 +111,12 @@ public class SpectrumLEDs implements SpectrumSubsystem {
     }
 
     public void periodic() {
+        periodicProfile.start();
         // Set the LEDs only if this is the main view
         if (mainView) {
             led.setData(ledBuffer);
         }
+        periodicProfile.stop();
     }
 
     public boolean isAttached() {
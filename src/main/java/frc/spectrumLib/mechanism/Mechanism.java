@@ -1,12 +1,14 @@
 package frc.spectrumLib.mechanism;
 
-import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.BaseStatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.controls.ControlRequest;
 import com.ctre.phoenix6.controls.DutyCycleOut;
 import com.ctre.phoenix6.controls.MotionMagicTorqueCurrentFOC;
 import com.ctre.phoenix6.controls.MotionMagicVelocityTorqueCurrentFOC;
 import com.ctre.phoenix6.controls.MotionMagicVelocityVoltage;
 import com.ctre.phoenix6.controls.MotionMagicVoltage;
+import com.ctre.phoenix6.controls.NeutralOut;
 import com.ctre.phoenix6.controls.VelocityTorqueCurrentFOC;
 import com.ctre.phoenix6.controls.VelocityVoltage;
 import com.ctre.phoenix6.controls.VoltageOut;
@@ -24,9 +26,18 @@ import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
-import frc.spectrumLib.CachedDouble;
+import frc.spectrumLib.CachedObject;
 import frc.spectrumLib.SpectrumRobot;
 import frc.spectrumLib.SpectrumSubsystem;
+import frc.spectrumLib.profiling.LoopProfiler;
+import frc.spectrumLib.signals.CanBusMonitor;
+import frc.spectrumLib.signals.SampleBuffer.CurrentWindow;
+import frc.spectrumLib.signals.SampleBuffer.Sample;
+import frc.spectrumLib.signals.SignalRates;
+import frc.spectrumLib.signals.SignalRegistry;
+import frc.spectrumLib.signals.SignalSampler;
+import frc.spectrumLib.talonFX.TalonConfigQueue;
+import frc.spectrumLib.talonFX.TalonConfigQueue.Section;
 import frc.spectrumLib.talonFX.TalonFXFactory;
 import frc.spectrumLib.util.CanDeviceId;
 import frc.spectrumLib.util.Conversions;
@@ -46,31 +57,86 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
 
     Alert currentAlert = new Alert("", AlertType.kWarning);
 
-    private final CachedDouble cachedRotations;
-    private final CachedDouble cachedPercentage;
-    private final CachedDouble cachedVelocity;
-    private final CachedDouble cachedCurrent;
+    // Refreshed once per loop by the SignalRegistry, reading them does not touch the CAN bus
+    private BaseStatusSignal positionSignal;
+    private BaseStatusSignal velocitySignal;
+    private BaseStatusSignal currentSignal;
+
+    // Applies setBrakeMode and the other runtime config changes off of the robot loop
+    private TalonConfigQueue.Device configQueue;
+
+    // Optional high rate sampler, when running the getters read its newest sample instead
+    @Getter private SignalSampler sampler;
+    private CachedObject<Sample> latestSample; // the sampler's newest sample, read once a loop
+
+    private final LoopProfiler.Section periodicProfile;
+
+    /* Rate of the leader frames its followers track */
+    private static final double FOLLOWED_HZ = 100;
+
+    private final NeutralOut neutralOut = new NeutralOut().withUpdateFreqHz(Config.CONTROL_HZ);
 
     protected Mechanism(Config config) {
         this.config = config;
+        periodicProfile = LoopProfiler.section(config.getName() + "/periodic");
 
         if (isAttached()) {
-            motor = TalonFXFactory.createConfigTalon(config.id, config.talonConfig);
+            // Configured in the background by DeviceBringup, Robot waits for them all at once
+            motor = TalonFXFactory.createConfigTalon(config.name, config.id, config.talonConfig);
 
             followerMotors = new TalonFX[config.followerConfigs.length];
             for (int i = 0; i < config.followerConfigs.length; i++) {
                 followerMotors[i] =
                         TalonFXFactory.createPermanentFollowerTalon(
+                                config.followerConfigs[i].name,
                                 config.followerConfigs[i].id,
                                 motor,
+                                config.talonConfig,
                                 config.followerConfigs[i].opposeLeader);
             }
-        }
+            // We don't read anything from the followers
+            for (TalonFX follower : followerMotors) {
+                SignalRates.addDevice(follower);
+            }
+            if (followerMotors.length > 0) {
+                // Followers track the leader's output frames, keep them coming
+                SignalRates.registerFixed(
+                        config.id.getBus(),
+                        FOLLOWED_HZ,
+                        motor.getDutyCycle(),
+                        motor.getMotorVoltage(),
+                        motor.getTorqueCurrent());
+            }
+            SignalRates.addDevice(motor);
+            configQueue = TalonConfigQueue.register(config.name, motor);
 
-        cachedCurrent = new CachedDouble(this::updateCurrent);
-        cachedRotations = new CachedDouble(this::updatePositionRotations);
-        cachedPercentage = new CachedDouble(this::updatePositionPercentage);
-        cachedVelocity = new CachedDouble(this::updateVelocityRPM);
+            if (config.samplerFrequency > 0) {
+                sampler =
+                        new SignalSampler(
+                                config.name,
+                                motor,
+                                config.samplerFrequency,
+                                config.samplerBufferSeconds);
+                sampler.start();
+                Sample sample = new Sample();
+                latestSample =
+                        new CachedObject<>(
+                                () -> {
+                                    sampler.getBuffer().readLatest(sample);
+                                    return sample;
+                                });
+            } else {
+                positionSignal = motor.getPosition();
+                velocitySignal = motor.getVelocity();
+                currentSignal = motor.getStatorCurrent();
+                SignalRegistry.register(
+                        config.id.getBus(), positionSignal, velocitySignal, currentSignal);
+                SignalRates.register(config.id.getBus(), config.positionHz, positionSignal);
+                SignalRates.register(config.id.getBus(), config.velocityHz, velocitySignal);
+                SignalRates.register(config.id.getBus(), config.currentHz, currentSignal);
+                CanBusMonitor.watch(config.name, positionSignal, velocitySignal, currentSignal);
+            }
+        }
 
         SpectrumRobot.add(this);
         this.register();
@@ -88,8 +154,16 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
         SmartDashboard.putData(this);
     }
 
+    /** Timed by the LoopProfiler, override {@link #mechanismPeriodic()} to run code every loop */
     @Override
-    public void periodic() {}
+    public final void periodic() {
+        periodicProfile.start();
+        mechanismPeriodic();
+        periodicProfile.stop();
+    }
+
+    /** Called every loop by periodic() */
+    protected void mechanismPeriodic() {}
 
     @Override
     public void simulationPeriodic() {}
@@ -171,19 +245,23 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
     }
 
     /**
-     * Update the value of the stator current for the motor
+     * Stator current of the motor, refreshed at the start of each loop by the SignalRegistry
      *
-     * @return
+     * @return stator current in amps
      */
-    public double updateCurrent() {
+    public double getCurrent() {
         if (config.attached) {
-            return motor.getStatorCurrent().getValueAsDouble();
+            if (sampler != null) {
+                return latestSample.get().getCurrent();
+            }
+            return currentSignal.getValueAsDouble();
         }
         return 0;
     }
 
-    public double getCurrent() {
-        return cachedCurrent.getAsDouble();
+    /** @return true if this mechanism is recorded by a high rate {@link SignalSampler} */
+    public boolean isSampled() {
+        return sampler != null;
     }
 
     /**
@@ -205,49 +283,43 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
         return (rotations.getAsDouble() / config.maxRotations) * 100;
     }
 
-    public double getPositionRotations() {
-        return cachedRotations.getAsDouble();
-    }
-
     /**
-     * Updates the position of the motor
+     * Position of the motor, refreshed at the start of each loop by the SignalRegistry
      *
      * @return motor position in rotations
      */
-    private double updatePositionRotations() {
+    public double getPositionRotations() {
         if (config.attached) {
-            return motor.getPosition().getValueAsDouble();
+            if (sampler != null) {
+                return latestSample.get().getPosition();
+            }
+            return positionSignal.getValueAsDouble();
         }
         return 0;
     }
 
     public double getPositionPercentage() {
-        return cachedPercentage.getAsDouble();
-    }
-
-    private double updatePositionPercentage() {
-        return rotationsToPercent(this::getPositionRotations);
+        return (getPositionRotations() / config.maxRotations) * 100;
     }
 
     /**
-     * Updates the velocity of the motor
+     * Velocity of the motor, refreshed at the start of each loop by the SignalRegistry
      *
      * @return motor velocity in rotations/sec which are the CTRE native units
      */
-    private double updateVelocityRPS() {
+    private double getVelocityRPS() {
         if (config.attached) {
-            return motor.getVelocity().getValueAsDouble();
+            if (sampler != null) {
+                return latestSample.get().getVelocity();
+            }
+            return velocitySignal.getValueAsDouble();
         }
         return 0;
     }
 
-    public double getVelocityRPM() {
-        return cachedVelocity.getAsDouble();
-    }
-
     // Get Velocity in RPM
-    private double updateVelocityRPM() {
-        return Conversions.RPStoRPM(updateVelocityRPS());
+    public double getVelocityRPM() {
+        return Conversions.RPStoRPM(getVelocityRPS());
     }
 
     /* Commands: see method in lambda for more information */
@@ -333,7 +405,7 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
 
     protected void stop() {
         if (isAttached()) {
-            motor.stopMotor();
+            setControl(neutralOut);
         }
     }
 
@@ -362,9 +434,9 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
      */
     protected void setMMVelocityFOC(DoubleSupplier velocityRPS) {
         if (isAttached()) {
-            MotionMagicVelocityTorqueCurrentFOC mm =
-                    config.mmVelocityFOC.withVelocity(velocityRPS.getAsDouble());
-            motor.setControl(mm);
+            double velocity = velocityRPS.getAsDouble();
+            MotionMagicVelocityTorqueCurrentFOC mm = config.mmVelocityFOC.withVelocity(velocity);
+            setControl(mm);
         }
     }
 
@@ -375,9 +447,10 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
      */
     protected void setVelocityTorqueCurrentFOC(DoubleSupplier velocityRPS) {
         if (isAttached()) {
+            double velocity = velocityRPS.getAsDouble();
             VelocityTorqueCurrentFOC output =
-                    config.velocityTorqueCurrentFOC.withVelocity(velocityRPS.getAsDouble());
-            motor.setControl(output);
+                    config.velocityTorqueCurrentFOC.withVelocity(velocity);
+            setControl(output);
         }
     }
 
@@ -388,10 +461,10 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
      */
     protected void setVelocityTCFOCrpm(DoubleSupplier velocityRPS) {
         if (isAttached()) {
+            double velocity = Conversions.RPMtoRPS(velocityRPS.getAsDouble());
             VelocityTorqueCurrentFOC output =
-                    config.velocityTorqueCurrentFOC.withVelocity(
-                            Conversions.RPMtoRPS(velocityRPS.getAsDouble()));
-            motor.setControl(output);
+                    config.velocityTorqueCurrentFOC.withVelocity(velocity);
+            setControl(output);
         }
     }
 
@@ -402,8 +475,9 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
      */
     protected void setVelocity(DoubleSupplier velocityRPS) {
         if (isAttached()) {
-            VelocityVoltage output = config.velocityControl.withVelocity(velocityRPS.getAsDouble());
-            motor.setControl(output);
+            double velocity = velocityRPS.getAsDouble();
+            VelocityVoltage output = config.velocityControl.withVelocity(velocity);
+            setControl(output);
         }
     }
 
@@ -414,9 +488,9 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
      */
     protected void setMMPositionFoc(DoubleSupplier rotations) {
         if (isAttached()) {
-            MotionMagicTorqueCurrentFOC mm =
-                    config.mmPositionFOC.withPosition(rotations.getAsDouble());
-            motor.setControl(mm);
+            double position = rotations.getAsDouble();
+            MotionMagicTorqueCurrentFOC mm = config.mmPositionFOC.withPosition(position);
+            setControl(mm);
         }
     }
 
@@ -437,11 +511,10 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
      */
     public void setMMPosition(DoubleSupplier rotations, int slot) {
         if (isAttached()) {
+            double position = rotations.getAsDouble();
             MotionMagicVoltage mm =
-                    config.mmPositionVoltageSlot
-                            .withSlot(slot)
-                            .withPosition(rotations.getAsDouble());
-            motor.setControl(mm);
+                    config.mmPositionVoltageSlot.withSlot(slot).withPosition(position);
+            setControl(mm);
         }
     }
 
@@ -452,17 +525,22 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
      */
     public void setPercentOutput(DoubleSupplier percent) {
         if (isAttached()) {
-            VoltageOut output =
-                    config.voltageControl.withOutput(
-                            config.voltageCompSaturation * percent.getAsDouble());
-            motor.setControl(output);
+            double voltage = config.voltageCompSaturation * percent.getAsDouble();
+            VoltageOut output = config.voltageControl.withOutput(voltage);
+            setControl(output);
         }
     }
 
+    /** Every control request to the motor goes through here */
+    protected void setControl(ControlRequest request) {
+        motor.setControl(request);
+    }
+
+    /* Runtime config changes are applied by the TalonConfigQueue, so they never block the loop */
     public void setBrakeMode(boolean isInBrake) {
         if (isAttached()) {
             config.configNeutralBrakeMode(isInBrake);
-            config.applyTalonConfig(motor);
+            configQueue.apply(Section.MOTOR_OUTPUT, config.talonConfig);
         }
     }
 
@@ -470,7 +548,7 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
         if (isAttached()) {
             double threshold = config.talonConfig.SoftwareLimitSwitch.ReverseSoftLimitThreshold;
             config.configReverseSoftLimit(threshold, enabled);
-            config.applyTalonConfig(motor);
+            configQueue.apply(Section.SOFTWARE_LIMIT_SWITCH, config.talonConfig);
         }
     }
 
@@ -479,29 +557,57 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
             if (enabled) {
                 config.configForwardTorqueCurrentLimit(enabledLimit.getAsDouble());
                 config.configReverseTorqueCurrentLimit(enabledLimit.getAsDouble());
-                config.applyTalonConfig(motor);
             } else {
                 config.configForwardTorqueCurrentLimit(400);
                 config.configReverseTorqueCurrentLimit(400);
-                config.applyTalonConfig(motor);
             }
+            configQueue.apply(Section.TORQUE_CURRENT, config.talonConfig);
         }
     }
 
+    /** @return true while a runtime config change is waiting to be applied to the motor */
+    public Trigger configPending() {
+        if (!isAttached()) {
+            return Trigger.kFalse;
+        }
+        return configQueue.pending();
+    }
+
+    /** @return true if the last runtime config change failed to apply to the motor */
+    public Trigger configFailed() {
+        if (!isAttached()) {
+            return Trigger.kFalse;
+        }
+        return configQueue.failed();
+    }
+
     public Command checkAvgCurrent(DoubleSupplier expectedCurrent, DoubleSupplier tolerance) {
         return new Command() {
             double totalCurrent = 0;
             int count = 0;
+            double lastSample = 0;
+            final CurrentWindow window = new CurrentWindow();
             String alertText = config.name + " AvgCurrent Error";
 
             @Override
             public void initialize() {
                 totalCurrent = 0;
                 count = 0;
+                if (isSampled()) {
+                    lastSample = sampler.getBuffer().getLatestTimestamp();
+                }
             }
 
             @Override
             public void execute() {
+                if (isSampled()) {
+                    // Average every sample taken since the last loop, not just the newest one
+                    sampler.getBuffer().scanCurrent(lastSample, window);
+                    totalCurrent += window.getSum();
+                    count += window.getCount();
+                    lastSample = window.getUntil();
+                    return;
+                }
                 totalCurrent += getCurrent();
                 count++;
             }
@@ -526,16 +632,27 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
     public Command checkMaxCurrent(DoubleSupplier expectedCurrent) {
         return new Command() {
             double maxCurrent = 0;
+            double lastSample = 0;
+            final CurrentWindow window = new CurrentWindow();
             String alertText = config.name + " MaxCurrent Error";
 
             @Override
             public void initialize() {
                 maxCurrent = 0;
+                if (isSampled()) {
+                    lastSample = sampler.getBuffer().getLatestTimestamp();
+                }
             }
 
             @Override
             public void execute() {
                 double current = getCurrent();
+                if (isSampled()) {
+                    // Catch spikes that happened between loops
+                    sampler.getBuffer().scanCurrent(lastSample, window);
+                    current = window.getMax();
+                    lastSample = window.getUntil();
+                }
                 if (current > maxCurrent) {
                     maxCurrent = current;
                 }
@@ -612,28 +729,54 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
         @Getter private double minRotations = 0;
         @Getter private double maxRotations = 1;
 
+        /* High rate signal sampler, disabled when the frequency is 0 */
+        @Getter private double samplerFrequency = 0; // Hz
+        @Getter private double samplerBufferSeconds = 0.5;
+
+        /* Rates the position, velocity and current signals are needed at while enabled */
+        @Getter private double positionHz = 50; // Hz
+        @Getter private double velocityHz = 50; // Hz
+        @Getter private double currentHz = 50; // Hz
+
         @Getter private FollowerConfig[] followerConfigs = new FollowerConfig[0];
 
+        /**
+         * Rate Phoenix resends the last control request at, the keep-alive that keeps the motor
+         * enabled. A changed request still goes out when it's set, so the default 100 Hz only
+         * repeats the same frame. 20 Hz is the lowest Phoenix allows.
+         */
+        public static final double CONTROL_HZ = 20;
+
         @Getter
         private MotionMagicVelocityTorqueCurrentFOC mmVelocityFOC =
-                new MotionMagicVelocityTorqueCurrentFOC(0);
+                new MotionMagicVelocityTorqueCurrentFOC(0).withUpdateFreqHz(CONTROL_HZ);
 
         @Getter
-        private MotionMagicTorqueCurrentFOC mmPositionFOC = new MotionMagicTorqueCurrentFOC(0);
+        private MotionMagicTorqueCurrentFOC mmPositionFOC =
+                new MotionMagicTorqueCurrentFOC(0).withUpdateFreqHz(CONTROL_HZ);
 
         @Getter
-        private MotionMagicVelocityVoltage mmVelocityVoltage = new MotionMagicVelocityVoltage(0);
+        private MotionMagicVelocityVoltage mmVelocityVoltage =
+                new MotionMagicVelocityVoltage(0).withUpdateFreqHz(CONTROL_HZ);
 
-        @Getter private MotionMagicVoltage mmPositionVoltage = new MotionMagicVoltage(0);
+        @Getter
+        private MotionMagicVoltage mmPositionVoltage =
+                new MotionMagicVoltage(0).withUpdateFreqHz(CONTROL_HZ);
 
         @Getter
-        private MotionMagicVoltage mmPositionVoltageSlot = new MotionMagicVoltage(0).withSlot(1);
+        private MotionMagicVoltage mmPositionVoltageSlot =
+                new MotionMagicVoltage(0).withSlot(1).withUpdateFreqHz(CONTROL_HZ);
 
-        @Getter private VoltageOut voltageControl = new VoltageOut(0);
-        @Getter private VelocityVoltage velocityControl = new VelocityVoltage(0);
+        @Getter
+        private VoltageOut voltageControl = new VoltageOut(0).withUpdateFreqHz(CONTROL_HZ);
+
+        @Getter
+        private VelocityVoltage velocityControl =
+                new VelocityVoltage(0).withUpdateFreqHz(CONTROL_HZ);
 
         @Getter
-        private VelocityTorqueCurrentFOC velocityTorqueCurrentFOC = new VelocityTorqueCurrentFOC(0);
+        private VelocityTorqueCurrentFOC velocityTorqueCurrentFOC =
+                new VelocityTorqueCurrentFOC(0).withUpdateFreqHz(CONTROL_HZ);
 
         @Getter
         private DutyCycleOut percentOutput =
@@ -651,18 +794,30 @@ public abstract class Mechanism implements NTSendable, SpectrumSubsystem {
             talonConfig.HardwareLimitSwitch.ReverseLimitEnable = false;
         }
 
-        public void applyTalonConfig(TalonFX talon) {
-            StatusCode result = talon.getConfigurator().apply(talonConfig);
-            if (!result.isOK()) {
-                DriverStation.reportWarning(
-                        "Could not apply config changes to " + name + "\'s motor ", false);
-            }
-        }
-
         public void setFollowerConfigs(FollowerConfig... followers) {
             followerConfigs = followers;
         }
 
+        /**
+         * Sample position, velocity and current on a background thread at the given rate instead
+         * of once per robot loop
+         *
+         * @param frequencyHz sample rate, 0 disables the sampler
+         */
+        public void configSignalSampler(double frequencyHz) {
+            this.samplerFrequency = frequencyHz;
+        }
+
+        /**
+         * How often this mechanism needs each signal while enabled, they are all slowed down while
+         * disabled. Ignored when the signal sampler is used.
+         */
+        public void configSignalRates(double positionHz, double velocityHz, double currentHz) {
+            this.positionHz = positionHz;
+            this.velocityHz = velocityHz;
+            this.currentHz = currentHz;
+        }
+
         public void configVoltageCompensation(double voltageCompSaturation) {
             this.voltageCompSaturation = voltageCompSaturation;
         }
@@ -0,0 +1,94 @@
+package frc.spectrumLib.profiling;
+
+import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.util.Histogram;
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Times sections of the robot loop (subsystem periodics, command executes, trigger conditions and
+ * the scheduler itself) so we can tell which one causes a loop overrun. Sections are created once
+ * at startup; starting and stopping them only records into a preallocated {@link Histogram}. Every
+ * {@code publishPeriodLoops} loops the p50, p99 and max of each section are logged to Telemetry in
+ * milliseconds and the histograms are cleared.
+ */
+public class LoopProfiler {
+
+    /** A timed piece of the loop, keep a reference to it instead of looking it up every loop */
+    public static class Section {
+        @Getter private final String name;
+        private final String p50Key;
+        private final String p99Key;
+        private final String maxKey;
+        private final Histogram histogram = new Histogram(1_000, 100_000_000, 4); // 1us - 100ms
+        private long startNanos = -1;
+
+        private Section(String name) {
+            this.name = name;
+            String key = "LoopProfiler/" + name;
+            p50Key = key + "/p50Ms";
+            p99Key = key + "/p99Ms";
+            maxKey = key + "/maxMs";
+        }
+
+        public void start() {
+            if (enabled) {
+                startNanos = System.nanoTime();
+            }
+        }
+
+        public void stop() {
+            if (startNanos >= 0) {
+                histogram.record(System.nanoTime() - startNanos);
+                startNanos = -1;
+            }
+        }
+
+        private void publish() {
+            if (histogram.getCount() == 0) {
+                return;
+            }
+            Telemetry.log(p50Key, histogram.getPercentile(0.5) / 1e6);
+            Telemetry.log(p99Key, histogram.getPercentile(0.99) / 1e6);
+            Telemetry.log(maxKey, histogram.getMax() / 1e6);
+            histogram.reset();
+        }
+    }
+
+    @Getter @Setter private static boolean enabled = true;
+    @Getter @Setter private static int publishPeriodLoops = 50; // once a second
+
+    private static Section[] sections = new Section[0];
+    private static int loops = 0;
+
+    private LoopProfiler() {}
+
+    /**
+     * Get the section with the given name, creating it if needed. Call this when setting things up,
+     * not every loop.
+     */
+    public static Section section(String name) {
+        for (Section section : sections) {
+            if (section.name.equals(name)) {
+                return section;
+            }
+        }
+        Section section = new Section(name);
+        sections = Arrays.copyOf(sections, sections.length + 1);
+        sections[sections.length - 1] = section;
+        return section;
+    }
+
+    /** Call once at the end of every robot loop */
+    public static void endLoop() {
+        loops++;
+        if (loops < publishPeriodLoops) {
+            return;
+        }
+        loops = 0;
+        for (int i = 0; i < sections.length; i++) {
+            sections[i].publish();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package frc.spectrumLib.profiling;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.WrapperCommand;
+
+/** Wraps a command so the time spent in its execute() is recorded by the {@link LoopProfiler} */
+public class ProfiledCommand extends WrapperCommand {
+    private final LoopProfiler.Section executeSection;
+
+    public ProfiledCommand(Command command) {
+        super(command);
+        executeSection = LoopProfiler.section("Command/" + command.getName());
+    }
+
+    @Override
+    public void execute() {
+        executeSection.start();
+        m_command.execute();
+        executeSection.stop();
+    }
+}
@@ -0,0 +1,188 @@
+package frc.spectrumLib.signals;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.CANBus.CANBusStatus;
+import com.ctre.phoenix6.Utils;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.spectrumLib.Rio;
+import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.util.Histogram;
+import java.util.ArrayList;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Watches the load on our CAN buses and how fresh the signals our mechanisms read are. Bus status
+ * is sampled a couple times a second; signal age (time since the device sent the value) and jitter
+ * (how far each update's spacing is from the average) are recorded every loop into histograms.
+ * Everything is published through Telemetry once a second, and an Alert is raised when a bus gets
+ * too busy or starts dropping frames.
+ */
+public class CanBusMonitor extends SubsystemBase {
+    private static final int BUS_PERIOD_LOOPS = 25;
+    private static final int PUBLISH_PERIOD_LOOPS = 50;
+
+    /** Bus utilization, 0 to 1, that raises the Alert */
+    @Getter @Setter private double utilizationThreshold = 0.8;
+
+    /** The signals one consumer reads */
+    private static class Watch {
+        private final BaseStatusSignal[] signals;
+        private final double[] lastTimestamp;
+        private final double[] avgInterval;
+        private final Histogram ageMs = new Histogram(0.1, 1000, 4);
+        private final Histogram jitterMs = new Histogram(0.01, 1000, 4);
+        private final String ageP50Key, ageP99Key, ageMaxKey, jitterP99Key;
+
+        private Watch(String name, BaseStatusSignal[] signals) {
+            this.signals = signals;
+            lastTimestamp = new double[signals.length];
+            avgInterval = new double[signals.length];
+            String key = "CAN/Signals/" + name;
+            ageP50Key = key + "/ageP50Ms";
+            ageP99Key = key + "/ageP99Ms";
+            ageMaxKey = key + "/ageMaxMs";
+            jitterP99Key = key + "/jitterP99Ms";
+        }
+
+        private void sample(double now) {
+            for (int i = 0; i < signals.length; i++) {
+                double timestamp = signals[i].getTimestamp().getTime();
+                if (timestamp <= 0) {
+                    continue; // never received
+                }
+                ageMs.record((now - timestamp) * 1000);
+                if (timestamp == lastTimestamp[i]) {
+                    continue;
+                }
+                if (lastTimestamp[i] > 0) {
+                    double interval = timestamp - lastTimestamp[i];
+                    if (avgInterval[i] > 0) {
+                        jitterMs.record(Math.abs(interval - avgInterval[i]) * 1000);
+                        avgInterval[i] += (interval - avgInterval[i]) * 0.1;
+                    } else {
+                        avgInterval[i] = interval;
+                    }
+                }
+                lastTimestamp[i] = timestamp;
+            }
+        }
+
+        private void publish() {
+            if (ageMs.getCount() > 0) {
+                Telemetry.log(ageP50Key, ageMs.getPercentile(0.5));
+                Telemetry.log(ageP99Key, ageMs.getPercentile(0.99));
+                Telemetry.log(ageMaxKey, ageMs.getMax());
+            }
+            if (jitterMs.getCount() > 0) {
+                Telemetry.log(jitterP99Key, jitterMs.getPercentile(0.99));
+            }
+            ageMs.reset();
+            jitterMs.reset();
+        }
+    }
+
+    /** One CAN bus's status */
+    private class Bus {
+        private final CANBus canbus;
+        private final Histogram utilization = new Histogram(0.001, 1, 8);
+        private final Alert alert = new Alert("", AlertType.kWarning);
+        private final String key;
+        private long lastTxFull = -1;
+
+        private Bus(String name, String label) {
+            canbus = new CANBus(name);
+            key = "CAN/" + label;
+        }
+
+        private void sample() {
+            CANBusStatus status = canbus.getStatus();
+            if (!status.Status.isOK()) {
+                return;
+            }
+            utilization.record(status.BusUtilization);
+            Telemetry.log(key + "/utilization", status.BusUtilization);
+            Telemetry.log(key + "/busOffCount", status.BusOffCount);
+            Telemetry.log(key + "/txFullCount", status.TxFullCount);
+            Telemetry.log(key + "/receiveErrors", status.REC);
+            Telemetry.log(key + "/transmitErrors", status.TEC);
+
+            // TxFull goes up when frames couldn't be sent
+            boolean dropping = lastTxFull >= 0 && status.TxFullCount > lastTxFull;
+            lastTxFull = status.TxFullCount;
+            boolean busy = status.BusUtilization > utilizationThreshold;
+            if (busy || dropping) {
+                alert.setText(
+                        String.format(
+                                "%s at %.0f%% utilization%s",
+                                key,
+                                status.BusUtilization * 100,
+                                dropping ? ", dropping frames" : ""));
+            }
+            alert.set(busy || dropping);
+        }
+
+        private void publish() {
+            if (utilization.getCount() > 0) {
+                Telemetry.log(key + "/utilizationP50", utilization.getPercentile(0.5));
+                Telemetry.log(key + "/utilizationMax", utilization.getMax());
+            }
+            utilization.reset();
+        }
+    }
+
+    private static final ArrayList<Watch> watches = new ArrayList<>();
+
+    private final Bus[] buses;
+    private Watch[] watchList = new Watch[0];
+    private int loops = 0;
+
+    public CanBusMonitor() {
+        buses =
+                new Bus[] {
+                    new Bus(Rio.CANIVORE, "canivore"), new Bus(Rio.RIO_CANBUS, Rio.RIO_CANBUS)
+                };
+    }
+
+    /**
+     * Watch the age and jitter of signals a consumer reads, they must be refreshed every loop (ex:
+     * by the {@link SignalRegistry})
+     *
+     * @param name used in telemetry
+     * @param signals the signals to watch
+     */
+    public static void watch(String name, BaseStatusSignal... signals) {
+        watches.add(new Watch(name, signals));
+    }
+
+    @Override
+    public void periodic() {
+        if (watchList.length != watches.size()) {
+            watchList = watches.toArray(new Watch[0]);
+        }
+
+        double now = Utils.getCurrentTimeSeconds();
+        for (Watch watch : watchList) {
+            watch.sample(now);
+        }
+
+        loops++;
+        if (loops % BUS_PERIOD_LOOPS == 0) {
+            for (Bus bus : buses) {
+                bus.sample();
+            }
+        }
+        if (loops >= PUBLISH_PERIOD_LOOPS) {
+            loops = 0;
+            for (Watch watch : watchList) {
+                watch.publish();
+            }
+            for (Bus bus : buses) {
+                bus.publish();
+            }
+        }
+    }
+}
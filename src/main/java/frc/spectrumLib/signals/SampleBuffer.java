@@ -0,0 +1,120 @@
+package frc.spectrumLib.signals;
+
+import lombok.Getter;
+
+/**
+ * Fixed size ring buffer of timestamped position, velocity and current samples. There is a single
+ * writer (the {@link SignalSampler} thread) and any number of readers. Readers never block the
+ * writer; the newest samples are always readable, and samples older than the capacity are
+ * overwritten.
+ */
+public class SampleBuffer {
+    private final int mask;
+    private final double[] timestamps;
+    private final double[] positions;
+    private final double[] velocities;
+    private final double[] currents;
+
+    // Number of samples ever written, published after the sample values are written
+    private volatile long writeCount = 0;
+
+    /** @param capacity number of samples kept, rounded up to a power of two */
+    public SampleBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        timestamps = new double[size];
+        positions = new double[size];
+        velocities = new double[size];
+        currents = new double[size];
+    }
+
+    /** Only called by the writer thread */
+    void add(double timestamp, double position, double velocity, double current) {
+        long count = writeCount;
+        int i = (int) (count & mask);
+        timestamps[i] = timestamp;
+        positions[i] = position;
+        velocities[i] = velocity;
+        currents[i] = current;
+        writeCount = count + 1;
+    }
+
+    public boolean isEmpty() {
+        return writeCount == 0;
+    }
+
+    public double getLatestTimestamp() {
+        return latest(timestamps);
+    }
+
+    /**
+     * Copy the newest sample, every value from the same write
+     *
+     * @param sample filled in place, all zeros if nothing has been written yet
+     */
+    public void readLatest(Sample sample) {
+        long count = writeCount;
+        if (count == 0) {
+            sample.timestamp = sample.position = sample.velocity = sample.current = 0;
+            return;
+        }
+        int i = (int) ((count - 1) & mask);
+        sample.timestamp = timestamps[i];
+        sample.position = positions[i];
+        sample.velocity = velocities[i];
+        sample.current = currents[i];
+    }
+
+    /**
+     * Scan the current of every sample taken after {@code since}, up to the newest sample when the
+     * scan starts. The sum, max and count all come from the same samples.
+     *
+     * @param window filled in place, its {@code until} is where the next scan should start
+     */
+    public void scanCurrent(double since, CurrentWindow window) {
+        window.sum = 0;
+        window.max = 0;
+        window.count = 0;
+        window.until = since;
+        long count = writeCount;
+        for (long n = count - 1; n >= 0 && count - n <= mask; n--) {
+            int i = (int) (n & mask);
+            double t = timestamps[i];
+            if (t <= since) {
+                break;
+            }
+            if (window.count == 0) {
+                window.until = t;
+            }
+            double current = currents[i];
+            window.sum += current;
+            window.max = Math.max(window.max, current);
+            window.count++;
+        }
+    }
+
+    private double latest(double[] values) {
+        long count = writeCount;
+        if (count == 0) {
+            return 0;
+        }
+        return values[(int) ((count - 1) & mask)];
+    }
+
+    /** One sample, see {@link #readLatest(Sample)} */
+    public static class Sample {
+        @Getter private double timestamp;
+        @Getter private double position;
+        @Getter private double velocity;
+        @Getter private double current;
+    }
+
+    /** The current of the samples in a window, see {@link #scanCurrent(double, CurrentWindow)} */
+    public static class CurrentWindow {
+        @Getter private double sum;
+        @Getter private double max;
+        @Getter private int count;
+        /** Timestamp of the newest sample scanned, or the start of the window if there were none */
+        @Getter private double until;
+    }
+}
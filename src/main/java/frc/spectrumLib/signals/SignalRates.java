@@ -0,0 +1,180 @@
+package frc.spectrumLib.signals;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import frc.spectrumLib.Telemetry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sets the update rate of every StatusSignal to what its consumer declared, slows them all down
+ * while disabled, and turns off every other signal with optimizeBusUtilization. Phoenix sends the
+ * signals we don't read at their default rates otherwise.
+ *
+ * <p>Changing rates is a blocking CAN call, so it is done on a background thread. Signals that
+ * share a CAN frame on the device are sent at the fastest rate asked for any of them.
+ */
+public final class SignalRates {
+    /** Rate every signal is slowed to while disabled, the lowest Phoenix allows */
+    public static final double DISABLED_HZ = 4;
+
+    private static final double SETTLE_SECONDS = 1; // wait before measuring the bus again
+    private static final double BITS_PER_FRAME = 130; // CAN 2.0 frame with 8 data bytes, worst case
+    private static final double BITRATE = 1_000_000;
+
+    private static class Rate {
+        private final BaseStatusSignal signal;
+        private final String canbus;
+        private final double enabledHz;
+        private final boolean fixed; // kept at enabledHz while disabled too
+
+        private Rate(BaseStatusSignal signal, String canbus, double enabledHz, boolean fixed) {
+            this.signal = signal;
+            this.canbus = canbus;
+            this.enabledHz = enabledHz;
+            this.fixed = fixed;
+        }
+    }
+
+    private static final ArrayList<Rate> rates = new ArrayList<>();
+    private static final ArrayList<ParentDevice> devices = new ArrayList<>();
+    private static final ExecutorService worker =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "SignalRates");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+    private static Boolean enabled = null;
+
+    private SignalRates() {}
+
+    /**
+     * Declare the rate a consumer needs signals at while enabled
+     *
+     * @param canbus the bus the signals are on
+     * @param enabledHz rate while enabled, at least {@link #DISABLED_HZ}
+     * @param signals signals read at that rate
+     */
+    public static synchronized void register(
+            String canbus, double enabledHz, BaseStatusSignal... signals) {
+        for (BaseStatusSignal signal : signals) {
+            rates.add(new Rate(signal, canbus, Math.max(enabledHz, DISABLED_HZ), false));
+        }
+    }
+
+    /**
+     * Declare signals that must keep their rate while disabled too, like the leader frames a
+     * follower motor tracks. Optimizing would otherwise turn them off.
+     *
+     * @param canbus the bus the signals are on
+     * @param hz rate in every mode
+     * @param signals signals sent at that rate
+     */
+    public static synchronized void registerFixed(
+            String canbus, double hz, BaseStatusSignal... signals) {
+        for (BaseStatusSignal signal : signals) {
+            rates.add(new Rate(signal, canbus, Math.max(hz, DISABLED_HZ), true));
+        }
+    }
+
+    /**
+     * Add a device to optimize. Any of its signals without a declared rate are turned off, so only
+     * add devices where every signal we read has been registered or given a rate.
+     */
+    public static synchronized void addDevice(ParentDevice device) {
+        if (!devices.contains(device)) {
+            devices.add(device);
+        }
+    }
+
+    /**
+     * Apply the disabled rates and turn off every undeclared signal. Called once after bring-up,
+     * logs the bus utilization before and after.
+     */
+    public static synchronized void optimize() {
+        Rate[] rateList = rates.toArray(new Rate[0]);
+        ParentDevice[] deviceList = devices.toArray(new ParentDevice[0]);
+        enabled = false;
+        worker.execute(() -> optimize(rateList, deviceList));
+    }
+
+    /** Switch between the enabled and disabled rates, does nothing if the mode didn't change */
+    public static synchronized void setEnabled(boolean isEnabled) {
+        if (enabled != null && enabled == isEnabled) {
+            return;
+        }
+        enabled = isEnabled;
+        Rate[] rateList = rates.toArray(new Rate[0]);
+        worker.execute(() -> apply(rateList, isEnabled));
+    }
+
+    private static void optimize(Rate[] rateList, ParentDevice[] deviceList) {
+        HashMap<String, Double> before = measure(rateList);
+        apply(rateList, false);
+        ParentDevice.optimizeBusUtilizationForAll(deviceList);
+        try {
+            Thread.sleep((long) (SETTLE_SECONDS * 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        HashMap<String, Double> after = measure(rateList);
+
+        HashMap<String, Double> declared = new HashMap<>();
+        for (Rate rate : rateList) {
+            declared.merge(rate.canbus, rate.enabledHz, Double::sum);
+        }
+        for (Map.Entry<String, Double> bus : before.entrySet()) {
+            String name = bus.getKey();
+            double enabledLoad = declared.get(name) * BITS_PER_FRAME / BITRATE;
+            Telemetry.log("CAN/" + busName(name) + "/utilizationBefore", bus.getValue());
+            Telemetry.log("CAN/" + busName(name) + "/utilizationAfter", after.get(name));
+            Telemetry.print(
+                    String.format(
+                            "SignalRates bus %s: %.0f%% -> %.0f%% disabled, declared signals"
+                                    + " ~%.0f%% when enabled",
+                            busName(name),
+                            bus.getValue() * 100,
+                            after.get(name) * 100,
+                            enabledLoad * 100));
+        }
+    }
+
+    private static void apply(Rate[] rateList, boolean isEnabled) {
+        // Batch the signals by rate so each rate is one call
+        LinkedHashMap<Double, ArrayList<BaseStatusSignal>> byRate = new LinkedHashMap<>();
+        for (Rate rate : rateList) {
+            double hz = isEnabled || rate.fixed ? rate.enabledHz : DISABLED_HZ;
+            byRate.computeIfAbsent(hz, k -> new ArrayList<>()).add(rate.signal);
+        }
+        for (Map.Entry<Double, ArrayList<BaseStatusSignal>> entry : byRate.entrySet()) {
+            BaseStatusSignal.setUpdateFrequencyForAll(
+                    entry.getKey(), entry.getValue().toArray(new BaseStatusSignal[0]));
+        }
+    }
+
+    /** @return measured utilization of each bus with declared signals, 0 to 1 */
+    private static HashMap<String, Double> measure(Rate[] rateList) {
+        HashMap<String, Double> utilization = new HashMap<>();
+        for (Rate rate : rateList) {
+            if (!utilization.containsKey(rate.canbus)) {
+                utilization.put(
+                        rate.canbus, (double) new CANBus(rate.canbus).getStatus().BusUtilization);
+            }
+        }
+        return utilization;
+    }
+
+    private static String busName(String canbus) {
+        if (canbus.isEmpty()) {
+            return "rio";
+        }
+        return canbus.equals("*") ? "canivore" : canbus;
+    }
+}
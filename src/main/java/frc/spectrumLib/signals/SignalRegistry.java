@@ -0,0 +1,90 @@
+package frc.spectrumLib.signals;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import java.util.Arrays;
+
+/**
+ * Collects every StatusSignal used by our mechanisms and refreshes them with a single batched
+ * {@link BaseStatusSignal#refreshAll} call per CAN bus. Call {@link #refreshAll()} once at the
+ * start of the robot loop, then read the signals with getValueAsDouble(), which does not touch the
+ * CAN bus or JNI.
+ */
+public class SignalRegistry {
+
+    /** The signals that live on one CAN bus */
+    private static class Bus {
+        private final String name;
+        private BaseStatusSignal[] signals = new BaseStatusSignal[0];
+        private final Alert refreshAlert;
+
+        private Bus(String name) {
+            this.name = name;
+            refreshAlert = new Alert("", AlertType.kWarning);
+        }
+
+        private void add(BaseStatusSignal... newSignals) {
+            int start = signals.length;
+            signals = Arrays.copyOf(signals, start + newSignals.length);
+            System.arraycopy(newSignals, 0, signals, start, newSignals.length);
+        }
+
+        private void refresh() {
+            if (signals.length == 0) {
+                return;
+            }
+            StatusCode status = BaseStatusSignal.refreshAll(signals);
+            boolean failed = !status.isOK();
+            if (failed) {
+                refreshAlert.setText("SignalRegistry: refresh failed on bus " + name + " " + status);
+            }
+            refreshAlert.set(failed);
+        }
+    }
+
+    private static volatile Bus[] buses = new Bus[0];
+
+    private SignalRegistry() {}
+
+    /**
+     * Register signals to be refreshed at the start of every loop. All signals must be on the given
+     * CAN bus.
+     *
+     * @param canbus name of the CAN bus the signals are on
+     * @param signals signals to refresh
+     */
+    public static synchronized void register(String canbus, BaseStatusSignal... signals) {
+        getBus(canbus).add(signals);
+    }
+
+    /** Refresh every registered signal, one batched call per CAN bus. */
+    public static void refreshAll() {
+        Bus[] current = buses;
+        for (int i = 0; i < current.length; i++) {
+            current[i].refresh();
+        }
+    }
+
+    /** @return the number of signals registered across all buses */
+    public static int getSignalCount() {
+        int count = 0;
+        for (Bus bus : buses) {
+            count += bus.signals.length;
+        }
+        return count;
+    }
+
+    private static Bus getBus(String canbus) {
+        for (Bus bus : buses) {
+            if (bus.name.equals(canbus)) {
+                return bus;
+            }
+        }
+        Bus bus = new Bus(canbus);
+        buses = Arrays.copyOf(buses, buses.length + 1);
+        buses[buses.length - 1] = bus;
+        return bus;
+    }
+}
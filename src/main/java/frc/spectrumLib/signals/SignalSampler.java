@@ -0,0 +1,71 @@
+package frc.spectrumLib.signals;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.hardware.TalonFX;
+import frc.spectrumLib.Telemetry;
+import lombok.Getter;
+
+/**
+ * Samples the position, velocity and stator current of a TalonFX on its own thread, faster than the
+ * 20ms robot loop. Works like the swerve odometry thread: it blocks on {@link
+ * BaseStatusSignal#waitForAll} until the device sends new data, then records the timestamped
+ * values into a {@link SampleBuffer} that Triggers and Commands can read.
+ */
+public class SignalSampler {
+    @Getter private final SampleBuffer buffer;
+    @Getter private final double frequencyHz;
+    private final BaseStatusSignal position;
+    private final BaseStatusSignal velocity;
+    private final BaseStatusSignal current;
+    private final BaseStatusSignal[] signals;
+    private final Thread thread;
+    private volatile boolean running = false;
+
+    /**
+     * @param name used to name the thread
+     * @param motor motor to sample
+     * @param frequencyHz update rate of the sampled signals
+     * @param bufferSeconds how much history to keep in the buffer
+     */
+    public SignalSampler(String name, TalonFX motor, double frequencyHz, double bufferSeconds) {
+        this.frequencyHz = frequencyHz;
+        buffer = new SampleBuffer((int) Math.ceil(frequencyHz * bufferSeconds));
+
+        // Use our own copies so the loop thread and the sampler don't refresh the same objects
+        position = motor.getPosition().clone();
+        velocity = motor.getVelocity().clone();
+        current = motor.getStatorCurrent().clone();
+        signals = new BaseStatusSignal[] {position, velocity, current};
+        BaseStatusSignal.setUpdateFrequencyForAll(frequencyHz, signals);
+
+        thread = new Thread(this::run, name + "Sampler");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    private void run() {
+        // Wait for up to two periods so a missed frame doesn't stall the thread
+        double timeout = 2.0 / frequencyHz;
+        while (running) {
+            StatusCode status = BaseStatusSignal.waitForAll(timeout, signals);
+            if (!status.isOK()) {
+                continue;
+            }
+            buffer.add(
+                    position.getTimestamp().getTime(),
+                    position.getValueAsDouble(),
+                    velocity.getValueAsDouble(),
+                    current.getValueAsDouble());
+        }
+        Telemetry.print(thread.getName() + " stopped");
+    }
+}
@@ -0,0 +1,277 @@
+package frc.spectrumLib.talonFX;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.ParentConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfigurator;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotBase;
+import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.util.CanDeviceId;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Remembers a fingerprint of the config we last applied to each Talon so we don't push the whole
+ * config at every boot. The device's config is read back, and only the sections where either the
+ * code's config or the device's config changed since the last boot are applied.
+ *
+ * <p>Each section stores two hashes: the config we asked for, and what the device reported after
+ * applying it (the device rounds some values, so the two don't always match). If the device
+ * reports something different than last time, it was swapped, factory reset or changed in Tuner,
+ * and we raise an Alert. Sections {@link TalonConfigQueue} changes at runtime are still re-applied
+ * but don't raise the Alert.
+ *
+ * <p>Stored in /home/lvuser on the robot and in the build directory in sim.
+ */
+public final class ConfigFingerprints {
+    private static final String FILE_NAME = "config_fingerprints.properties";
+
+    @FunctionalInterface
+    private interface SectionApply {
+        StatusCode apply(TalonFXConfigurator configurator, TalonFXConfiguration config, double t);
+    }
+
+    private enum Section {
+        MOTOR_OUTPUT(c -> c.MotorOutput, (t, c, s) -> t.apply(c.MotorOutput, s)),
+        CURRENT_LIMITS(c -> c.CurrentLimits, (t, c, s) -> t.apply(c.CurrentLimits, s)),
+        VOLTAGE(c -> c.Voltage, (t, c, s) -> t.apply(c.Voltage, s)),
+        TORQUE_CURRENT(c -> c.TorqueCurrent, (t, c, s) -> t.apply(c.TorqueCurrent, s)),
+        FEEDBACK(c -> c.Feedback, (t, c, s) -> t.apply(c.Feedback, s)),
+        DIFFERENTIAL_SENSORS(
+                c -> c.DifferentialSensors, (t, c, s) -> t.apply(c.DifferentialSensors, s)),
+        DIFFERENTIAL_CONSTANTS(
+                c -> c.DifferentialConstants, (t, c, s) -> t.apply(c.DifferentialConstants, s)),
+        OPEN_LOOP_RAMPS(c -> c.OpenLoopRamps, (t, c, s) -> t.apply(c.OpenLoopRamps, s)),
+        CLOSED_LOOP_RAMPS(c -> c.ClosedLoopRamps, (t, c, s) -> t.apply(c.ClosedLoopRamps, s)),
+        HARDWARE_LIMIT_SWITCH(
+                c -> c.HardwareLimitSwitch, (t, c, s) -> t.apply(c.HardwareLimitSwitch, s)),
+        AUDIO(c -> c.Audio, (t, c, s) -> t.apply(c.Audio, s)),
+        SOFTWARE_LIMIT_SWITCH(
+                c -> c.SoftwareLimitSwitch, (t, c, s) -> t.apply(c.SoftwareLimitSwitch, s)),
+        MOTION_MAGIC(c -> c.MotionMagic, (t, c, s) -> t.apply(c.MotionMagic, s)),
+        CUSTOM_PARAMS(c -> c.CustomParams, (t, c, s) -> t.apply(c.CustomParams, s)),
+        CLOSED_LOOP_GENERAL(
+                c -> c.ClosedLoopGeneral, (t, c, s) -> t.apply(c.ClosedLoopGeneral, s)),
+        SLOT0(c -> c.Slot0, (t, c, s) -> t.apply(c.Slot0, s)),
+        SLOT1(c -> c.Slot1, (t, c, s) -> t.apply(c.Slot1, s)),
+        SLOT2(c -> c.Slot2, (t, c, s) -> t.apply(c.Slot2, s));
+
+        private final Function<TalonFXConfiguration, ParentConfiguration> get;
+        private final SectionApply apply;
+
+        Section(Function<TalonFXConfiguration, ParentConfiguration> get, SectionApply apply) {
+            this.get = get;
+            this.apply = apply;
+        }
+
+        /** TalonConfigQueue changes these while running, so the device can differ at boot */
+        private boolean changedAtRuntime() {
+            return this == MOTOR_OUTPUT || this == SOFTWARE_LIMIT_SWITCH || this == TORQUE_CURRENT;
+        }
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+
+    private static Properties store;
+    private static boolean dirty = false;
+    private static final ArrayList<String> changedDevices = new ArrayList<>();
+    private static Alert changedAlert;
+
+    private ConfigFingerprints() {}
+
+    /**
+     * A {@link DeviceBringup} step that reads back the Talon's config and only applies the
+     * sections that changed since the last boot
+     *
+     * @param name used in warnings and telemetry
+     * @param id the key the fingerprints are stored under
+     * @param talon the Talon to configure
+     * @param config the config we want on the Talon, it is copied so it can keep being changed
+     */
+    public static DeviceBringup.ConfigStep applyChanged(
+            String name, CanDeviceId id, TalonFX talon, TalonFXConfiguration config) {
+        TalonFXConfiguration target = new TalonFXConfiguration();
+        target.deserialize(config.serialize());
+        return timeout -> apply(name, id, talon, target, timeout);
+    }
+
+    private static StatusCode apply(
+            String name,
+            CanDeviceId id,
+            TalonFX talon,
+            TalonFXConfiguration target,
+            double timeout) {
+        TalonFXConfigurator configurator = talon.getConfigurator();
+        TalonFXConfiguration current = new TalonFXConfiguration();
+        StatusCode result = configurator.refresh(current, timeout);
+        if (!result.isOK()) {
+            return result;
+        }
+
+        long[] targetHashes = hash(target);
+        long[] deviceHashes = hash(current);
+        long[][] stored = load(id);
+
+        int applied = 0;
+        boolean changedOnDevice = false;
+        if (stored == null) {
+            // Never seen this device, send everything in one go
+            result = configurator.apply(target, timeout);
+            if (!result.isOK()) {
+                return result;
+            }
+            applied = SECTIONS.length;
+        } else {
+            for (int i = 0; i < SECTIONS.length; i++) {
+                boolean deviceSame = stored[i] != null && stored[i][1] == deviceHashes[i];
+                if (stored[i] != null && !deviceSame && !SECTIONS[i].changedAtRuntime()) {
+                    changedOnDevice = true;
+                }
+                if (deviceSame && stored[i][0] == targetHashes[i]) {
+                    continue;
+                }
+                result = SECTIONS[i].apply.apply(configurator, target, timeout);
+                if (!result.isOK()) {
+                    return result;
+                }
+                applied++;
+            }
+        }
+
+        if (applied > 0) {
+            // Remember what the device reports after the apply, not what we sent
+            result = configurator.refresh(current, timeout);
+            if (!result.isOK()) {
+                return result;
+            }
+            deviceHashes = hash(current);
+        }
+        save(id, targetHashes, deviceHashes);
+
+        Telemetry.log("CAN/Fingerprints/" + name + "/sectionsApplied", applied);
+        if (changedOnDevice) {
+            deviceChanged(name);
+        }
+        return StatusCode.OK;
+    }
+
+    /** Write the fingerprints to disk, called once bring-up is done */
+    public static synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        File file = getFile();
+        file.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(file)) {
+            store.store(out, "Talon config fingerprints, delete to force a full config apply");
+            dirty = false;
+        } catch (IOException e) {
+            Telemetry.print("ConfigFingerprints failed to save " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static synchronized void deviceChanged(String name) {
+        changedDevices.add(name);
+        String text = "Talon config changed outside of code: " + String.join(", ", changedDevices);
+        if (RobotBase.isSimulation()) {
+            // Sim devices start at factory defaults every launch
+            Telemetry.print(text);
+            return;
+        }
+        DriverStation.reportWarning(
+                name + " config changed since last boot, swapped or reset?", false);
+        if (changedAlert == null) {
+            changedAlert = new Alert("", AlertType.kWarning);
+        }
+        changedAlert.setText(text);
+        changedAlert.set(true);
+    }
+
+    private static long[] hash(TalonFXConfiguration config) {
+        long[] hashes = new long[SECTIONS.length];
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < SECTIONS.length; i++) {
+            crc.reset();
+            crc.update(SECTIONS[i].get.apply(config).serialize().getBytes(StandardCharsets.UTF_8));
+            hashes[i] = crc.getValue();
+        }
+        return hashes;
+    }
+
+    /** @return target and device hash for each section, or null if the device was never saved */
+    private static synchronized long[][] load(CanDeviceId id) {
+        Properties properties = getStore();
+        long[][] stored = new long[SECTIONS.length][];
+        boolean any = false;
+        for (int i = 0; i < SECTIONS.length; i++) {
+            String value = properties.getProperty(key(id, SECTIONS[i]));
+            if (value == null) {
+                continue;
+            }
+            String[] parts = value.split(":");
+            if (parts.length != 2) {
+                continue;
+            }
+            try {
+                stored[i] =
+                        new long[] {Long.parseLong(parts[0], 16), Long.parseLong(parts[1], 16)};
+                any = true;
+            } catch (NumberFormatException e) {
+                // Treat it as never saved
+            }
+        }
+        return any ? stored : null;
+    }
+
+    private static synchronized void save(CanDeviceId id, long[] target, long[] device) {
+        Properties properties = getStore();
+        for (int i = 0; i < SECTIONS.length; i++) {
+            properties.setProperty(
+                    key(id, SECTIONS[i]),
+                    Long.toHexString(target[i]) + ":" + Long.toHexString(device[i]));
+        }
+        dirty = true;
+    }
+
+    private static String key(CanDeviceId id, Section section) {
+        String bus = id.getBus().isEmpty() ? "rio" : id.getBus();
+        return bus + "." + id.getDeviceNumber() + "." + section.name();
+    }
+
+    private static Properties getStore() {
+        if (store == null) {
+            store = new Properties();
+            File file = getFile();
+            if (file.exists()) {
+                try (InputStream in = new FileInputStream(file)) {
+                    store.load(in);
+                } catch (IOException e) {
+                    Telemetry.print("ConfigFingerprints failed to load " + file + ": " + e);
+                    store.clear();
+                }
+            }
+        }
+        return store;
+    }
+
+    private static File getFile() {
+        if (RobotBase.isReal()) {
+            return new File("/home/lvuser", FILE_NAME);
+        }
+        return new File(new File(Filesystem.getOperatingDirectory(), "build"), FILE_NAME);
+    }
+}
@@ -0,0 +1,185 @@
+package frc.spectrumLib.talonFX;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.CANcoderConfiguration;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.CANcoder;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj.DriverStation;
+import frc.spectrumLib.Telemetry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configures CAN devices in parallel while the robot is booting. Instead of each mechanism
+ * blocking on its config applies (and waiting between mechanisms), every apply is queued here and
+ * run on a small thread pool per CAN bus. Steps for the same device always run in the order they
+ * were queued. Each apply's StatusCode is checked and retried, and {@link #awaitAll(double)} waits
+ * for everything to finish and reports how long each device took.
+ */
+public final class DeviceBringup {
+    private static final int THREADS_PER_BUS = 4; // how many devices are configured at once per bus
+    private static final int RETRIES = 3;
+    private static final double APPLY_TIMEOUT = 0.1; // seconds, the Phoenix default
+
+    /** One blocking config call, ex: {@code t -> talon.getConfigurator().apply(config, t)} */
+    @FunctionalInterface
+    public interface ConfigStep {
+        StatusCode apply(double timeoutSeconds);
+    }
+
+    private static class Device {
+        private final String name;
+        private final long queuedNanos = System.nanoTime();
+        private volatile long readyNanos = 0;
+        private volatile boolean failed = false;
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+
+        private Device(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final HashMap<String, ThreadPoolExecutor> executors = new HashMap<>();
+    private static final IdentityHashMap<ParentDevice, Device> devices = new IdentityHashMap<>();
+    private static Alert failedAlert;
+
+    private DeviceBringup() {}
+
+    /**
+     * Queue a config step for a device, it runs after any steps already queued for that device
+     *
+     * @param name used in warnings and telemetry
+     * @param device the device being configured, used to pick the bus and keep steps in order
+     * @param step the blocking config call
+     */
+    public static synchronized void configure(String name, ParentDevice device, ConfigStep step) {
+        Device entry = devices.get(device);
+        if (entry == null) {
+            entry = new Device(name);
+            devices.put(device, entry);
+        }
+        final Device target = entry;
+        ThreadPoolExecutor executor =
+                executors.computeIfAbsent(device.getNetwork(), DeviceBringup::createExecutor);
+        entry.tail = entry.tail.thenRunAsync(() -> run(target, step), executor);
+    }
+
+    /** Queue a full Talon config, the config is copied so it can keep being changed */
+    public static void configure(String name, TalonFX talon, TalonFXConfiguration config) {
+        TalonFXConfiguration copy = new TalonFXConfiguration();
+        copy.deserialize(config.serialize());
+        configure(name, talon, timeout -> talon.getConfigurator().apply(copy, timeout));
+    }
+
+    /** Queue a full CANcoder config, the config is copied so it can keep being changed */
+    public static void configure(String name, CANcoder cancoder, CANcoderConfiguration config) {
+        CANcoderConfiguration copy = new CANcoderConfiguration();
+        copy.deserialize(config.serialize());
+        configure(name, cancoder, timeout -> cancoder.getConfigurator().apply(copy, timeout));
+    }
+
+    /**
+     * Wait for every queued step to finish and report each device's init time
+     *
+     * @param timeoutSeconds how long to wait before giving up on the rest
+     * @return true if every device was configured
+     */
+    public static boolean awaitAll(double timeoutSeconds) {
+        Device[] list;
+        CompletableFuture<?>[] tails;
+        synchronized (DeviceBringup.class) {
+            list = devices.values().toArray(new Device[0]);
+            tails = new CompletableFuture<?>[list.length];
+            for (int i = 0; i < list.length; i++) {
+                tails[i] = list[i].tail;
+            }
+        }
+
+        long start = System.nanoTime();
+        try {
+            CompletableFuture.allOf(tails).get((long) (timeoutSeconds * 1e9), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Reported per device below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ArrayList<String> failed = new ArrayList<>();
+        String slowest = "";
+        double slowestMs = 0;
+        for (Device device : list) {
+            if (device.readyNanos == 0 || device.failed) {
+                failed.add(device.name);
+                continue;
+            }
+            double ms = (device.readyNanos - device.queuedNanos) / 1e6;
+            Telemetry.log("CAN/Bringup/" + device.name + "Ms", ms);
+            if (ms > slowestMs) {
+                slowestMs = ms;
+                slowest = device.name;
+            }
+        }
+
+        ConfigFingerprints.flush();
+        Telemetry.print(
+                String.format(
+                        "CAN bring-up: %d devices, waited %.0fms, slowest %s %.0fms",
+                        list.length, (System.nanoTime() - start) / 1e6, slowest, slowestMs));
+        if (!failed.isEmpty()) {
+            if (failedAlert == null) {
+                failedAlert = new Alert("", AlertType.kError);
+            }
+            failedAlert.setText("CAN bring-up failed: " + String.join(", ", failed));
+            failedAlert.set(true);
+        }
+        return failed.isEmpty();
+    }
+
+    private static void run(Device device, ConfigStep step) {
+        StatusCode result = StatusCode.OK;
+        for (int attempt = 0; attempt < RETRIES; attempt++) {
+            result = step.apply(APPLY_TIMEOUT);
+            if (result.isOK()) {
+                device.readyNanos = System.nanoTime();
+                return;
+            }
+        }
+        device.failed = true;
+        device.readyNanos = System.nanoTime();
+        DriverStation.reportWarning(
+                "Could not configure " + device.name + " after " + RETRIES + " tries " + result,
+                false);
+    }
+
+    private static ThreadPoolExecutor createExecutor(String canbus) {
+        String name = "DeviceBringup-" + (canbus.isEmpty() ? "rio" : canbus) + "-";
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        THREADS_PER_BUS,
+                        THREADS_PER_BUS,
+                        1,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, name + count.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        // Let the threads exit once bring-up is done
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
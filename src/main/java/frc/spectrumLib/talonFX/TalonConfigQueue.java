@@ -0,0 +1,197 @@
+package frc.spectrumLib.talonFX;
+
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.configs.MotorOutputConfigs;
+import com.ctre.phoenix6.configs.SoftwareLimitSwitchConfigs;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.configs.TorqueCurrentConfigs;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.button.Trigger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies runtime Talon config changes (brake mode, soft limits, torque current limits) on a
+ * background thread per CAN bus, so the blocking CAN round trip never happens in the robot loop.
+ *
+ * <p>Only the changed section of the config is sent. If a section is changed again before the
+ * worker gets to it, only the newest values are applied. Each device reports back through {@link
+ * Device#pending()} and {@link Device#failed()} Triggers.
+ */
+public class TalonConfigQueue {
+
+    /** The parts of a TalonFXConfiguration that can be changed at runtime through the queue */
+    public enum Section {
+        MOTOR_OUTPUT,
+        SOFTWARE_LIMIT_SWITCH,
+        TORQUE_CURRENT
+    }
+
+    /** A Talon's pending config changes, only the newest change to each section is kept */
+    public static class Device {
+        private final String name;
+        private final TalonFX talon;
+        private final TalonConfigQueue queue;
+
+        // Guarded by this
+        private final MotorOutputConfigs motorOutput = new MotorOutputConfigs();
+        private final SoftwareLimitSwitchConfigs softLimits = new SoftwareLimitSwitchConfigs();
+        private final TorqueCurrentConfigs torqueCurrent = new TorqueCurrentConfigs();
+        private final boolean[] dirty = new boolean[Section.values().length];
+
+        // Number of changes queued by the robot loop and applied by the worker
+        private final AtomicLong requested = new AtomicLong();
+        private volatile long completed = 0;
+        private volatile boolean failed = false;
+
+        private Device(String name, TalonFX talon, TalonConfigQueue queue) {
+            this.name = name;
+            this.talon = talon;
+            this.queue = queue;
+        }
+
+        /**
+         * Queue a section of the config to be applied, the values are copied so the config can keep
+         * being changed
+         */
+        public void apply(Section section, TalonFXConfiguration config) {
+            synchronized (this) {
+                switch (section) {
+                    case MOTOR_OUTPUT:
+                        motorOutput.deserialize(config.MotorOutput.serialize());
+                        break;
+                    case SOFTWARE_LIMIT_SWITCH:
+                        softLimits.deserialize(config.SoftwareLimitSwitch.serialize());
+                        break;
+                    case TORQUE_CURRENT:
+                        torqueCurrent.deserialize(config.TorqueCurrent.serialize());
+                        break;
+                }
+                dirty[section.ordinal()] = true;
+                requested.incrementAndGet();
+            }
+            queue.wake(this);
+        }
+
+        /** @return true while a queued change hasn't been applied yet */
+        public boolean isPending() {
+            return completed != requested.get();
+        }
+
+        /** @return true if the last applied change failed */
+        public boolean hasFailed() {
+            return failed;
+        }
+
+        public Trigger pending() {
+            return new Trigger(this::isPending);
+        }
+
+        public Trigger failed() {
+            return new Trigger(this::hasFailed);
+        }
+
+        /** Called by the worker, applies every dirty section */
+        private void applyPending() {
+            MotorOutputConfigs motorOutputCopy = null;
+            SoftwareLimitSwitchConfigs softLimitsCopy = null;
+            TorqueCurrentConfigs torqueCurrentCopy = null;
+            long target;
+            synchronized (this) {
+                target = requested.get();
+                if (dirty[Section.MOTOR_OUTPUT.ordinal()]) {
+                    motorOutputCopy = new MotorOutputConfigs();
+                    motorOutputCopy.deserialize(motorOutput.serialize());
+                }
+                if (dirty[Section.SOFTWARE_LIMIT_SWITCH.ordinal()]) {
+                    softLimitsCopy = new SoftwareLimitSwitchConfigs();
+                    softLimitsCopy.deserialize(softLimits.serialize());
+                }
+                if (dirty[Section.TORQUE_CURRENT.ordinal()]) {
+                    torqueCurrentCopy = new TorqueCurrentConfigs();
+                    torqueCurrentCopy.deserialize(torqueCurrent.serialize());
+                }
+                for (int i = 0; i < dirty.length; i++) {
+                    dirty[i] = false;
+                }
+            }
+
+            // Apply outside the lock so the robot loop can keep queueing changes
+            boolean ok = true;
+            if (motorOutputCopy != null) {
+                ok &= check(talon.getConfigurator().apply(motorOutputCopy), "MotorOutput");
+            }
+            if (softLimitsCopy != null) {
+                ok &= check(talon.getConfigurator().apply(softLimitsCopy), "SoftwareLimitSwitch");
+            }
+            if (torqueCurrentCopy != null) {
+                ok &= check(talon.getConfigurator().apply(torqueCurrentCopy), "TorqueCurrent");
+            }
+            failed = !ok;
+            completed = target;
+        }
+
+        private boolean check(StatusCode result, String section) {
+            if (!result.isOK()) {
+                DriverStation.reportWarning(
+                        "Could not apply " + section + " config to " + name + "'s motor " + result,
+                        false);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static final HashMap<String, TalonConfigQueue> queues = new HashMap<>();
+
+    private final ArrayList<Device> ready = new ArrayList<>();
+    private final Thread thread;
+
+    private TalonConfigQueue(String canbus) {
+        thread = new Thread(this::run, "TalonConfigQueue-" + (canbus.isEmpty() ? "rio" : canbus));
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Register a Talon with the queue for its CAN bus
+     *
+     * @param name used in warnings
+     * @param talon the Talon to configure
+     * @return the handle used to queue changes and check their status
+     */
+    public static synchronized Device register(String name, TalonFX talon) {
+        TalonConfigQueue queue = queues.get(talon.getNetwork());
+        if (queue == null) {
+            queue = new TalonConfigQueue(talon.getNetwork());
+            queue.thread.start();
+            queues.put(talon.getNetwork(), queue);
+        }
+        return new Device(name, talon, queue);
+    }
+
+    private synchronized void wake(Device device) {
+        if (!ready.contains(device)) {
+            ready.add(device);
+        }
+        notifyAll();
+    }
+
+    private synchronized Device next() throws InterruptedException {
+        while (ready.isEmpty()) {
+            wait();
+        }
+        return ready.remove(0);
+    }
+
+    private void run() {
+        while (true) {
+            try {
+                next().applyPending();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
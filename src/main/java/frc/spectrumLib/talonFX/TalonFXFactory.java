@@ -16,6 +16,10 @@ import frc.spectrumLib.util.CanDeviceId;
  * Creates CANTalon objects and configures all the parameters we care about to factory defaults.
  * Closed-loop and sensor parameters are not set, as these are expected to be set by the
  * application.
+ *
+ * <p>Configs are queued with {@link DeviceBringup} instead of applied right away, so the Talon
+ * returned may not be configured yet. Call {@link DeviceBringup#awaitAll(double)} once every
+ * device has been created.
  */
 public class TalonFXFactory {
 
@@ -28,29 +32,46 @@ public class TalonFXFactory {
 
     // create a CANTalon with the default (out of the box) configuration
     public static TalonFX createDefaultTalon(CanDeviceId id) {
-        var talon = createTalon(id);
-        talon.getConfigurator().apply(getDefaultConfig());
-        return talon;
+        return createConfigTalon(id, getDefaultConfig());
     }
 
     public static TalonFX createConfigTalon(CanDeviceId id, TalonFXConfiguration config) {
-        var talon = createTalon(id);
-        talon.getConfigurator().apply(config);
+        return createConfigTalon("TalonFX " + id.getDeviceNumber() + " " + id.getBus(), id, config);
+    }
+
+    /**
+     * @param name used in bring-up warnings and telemetry
+     * @param id the Talon's CAN id and bus
+     * @param config applied in the background, it is copied so it can keep being changed. Sections
+     *     that match what the Talon had at the last boot are skipped, see {@link
+     *     ConfigFingerprints}
+     */
+    public static TalonFX createConfigTalon(
+            String name, CanDeviceId id, TalonFXConfiguration config) {
+        var talon = createTalon(name, id);
+        // Only the sections that changed since the last boot are sent
+        DeviceBringup.configure(
+                name, talon, ConfigFingerprints.applyChanged(name, id, talon, config));
         return talon;
     }
 
-    // Create a new follower talon with same configuration as the leader talon
+    /**
+     * Create a new follower talon with same configuration as the leader talon. The leader's config
+     * is passed in rather than read back from the leader so we don't wait on the CAN bus.
+     */
     public static TalonFX createPermanentFollowerTalon(
-            CanDeviceId followerId, TalonFX leaderTalonFX, boolean opposeLeaderDirection) {
+            String name,
+            CanDeviceId followerId,
+            TalonFX leaderTalonFX,
+            TalonFXConfiguration leaderConfig,
+            boolean opposeLeaderDirection) {
         String leaderCanBus = leaderTalonFX.getNetwork();
         int leaderId = leaderTalonFX.getDeviceID();
         if (!followerId.getBus().equals(leaderCanBus)) {
             throw new RuntimeException("Leader and Follwer Talons must be on the same CAN bus");
         }
 
-        TalonFXConfiguration followerConfig = getDefaultConfig();
-        leaderTalonFX.getConfigurator().refresh(followerConfig);
-        final TalonFX talon = createConfigTalon(followerId, followerConfig);
+        final TalonFX talon = createConfigTalon(name, followerId, leaderConfig);
 
         talon.setControl(new Follower(leaderId, opposeLeaderDirection));
         return talon;
@@ -94,9 +115,9 @@ public class TalonFXFactory {
         return config;
     }
 
-    private static TalonFX createTalon(CanDeviceId id) {
+    private static TalonFX createTalon(String name, CanDeviceId id) {
         TalonFX talon = new TalonFX(id.getDeviceNumber(), id.getBus());
-        talon.clearStickyFaults();
+        DeviceBringup.configure(name, talon, talon::clearStickyFaults);
 
         return talon;
     }
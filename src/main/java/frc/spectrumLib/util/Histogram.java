@@ -0,0 +1,95 @@
+package frc.spectrumLib.util;
+
+/**
+ * Preallocated histogram with logarithmically spaced buckets. Recording a value never allocates, so
+ * it is safe to use every loop to track timings and latencies. Percentiles are estimated from the
+ * bucket bounds, the max is exact.
+ */
+public class Histogram {
+    private final double min;
+    private final int bucketsPerOctave;
+    private final long[] buckets;
+
+    private long count = 0;
+    private double sum = 0;
+    private double max = 0;
+
+    /**
+     * @param min smallest value that gets its own bucket, smaller values go in the first bucket
+     * @param max largest value that gets its own bucket, larger values go in the last bucket
+     * @param bucketsPerOctave number of buckets for every doubling of the value
+     */
+    public Histogram(double min, double max, int bucketsPerOctave) {
+        this.min = min;
+        this.bucketsPerOctave = bucketsPerOctave;
+        int octaves = (int) Math.ceil(Math.log(max / min) / Math.log(2));
+        buckets = new long[octaves * bucketsPerOctave + 1];
+    }
+
+    public void record(double value) {
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+        buckets[bucketIndex(value)]++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        if (count == 0) {
+            return 0;
+        }
+        return sum / count;
+    }
+
+    /**
+     * Estimate a percentile of the recorded values
+     *
+     * @param percentile between 0 and 1, ex: 0.99 for p99
+     * @return the upper bound of the bucket the percentile falls in, never more than the max
+     */
+    public double getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    /** Clear all recorded values */
+    public void reset() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = 0;
+        }
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    private int bucketIndex(double value) {
+        if (value <= min) {
+            return 0;
+        }
+        int index = (int) (Math.log(value / min) * bucketsPerOctave / Math.log(2)) + 1;
+        return Math.min(index, buckets.length - 1);
+    }
+
+    private double bucketUpperBound(int index) {
+        return min * Math.pow(2, (double) index / bucketsPerOctave);
+    }
+}
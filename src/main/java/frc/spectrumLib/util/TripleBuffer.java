@@ -0,0 +1,58 @@
+package frc.spectrumLib.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free hand off of reusable objects from one writer thread to one reader thread. The writer
+ * fills {@link #getWriteBuffer()} and calls {@link #publish()}; the reader calls {@link #update()}
+ * to swap in the newest published buffer and reads it with {@link #getReadBuffer()}. Neither side
+ * ever blocks or allocates, and the reader always sees a complete buffer.
+ */
+public class TripleBuffer<T> {
+    private static final int FRESH = 4; // set when the middle buffer hasn't been read yet
+    private static final int INDEX = 3;
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(2);
+    private int writeIndex = 0;
+    private int readIndex = 1;
+
+    /** @param factory creates each of the three buffers */
+    public TripleBuffer(Supplier<T> factory) {
+        buffers = new Object[] {factory.get(), factory.get(), factory.get()};
+    }
+
+    /** Only called by the writer, the buffer to fill before calling {@link #publish()} */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /** Only called by the writer, hand the write buffer to the reader */
+    public void publish() {
+        writeIndex = middle.getAndSet(writeIndex | FRESH) & INDEX;
+    }
+
+    /**
+     * Only called by the reader, swap in the newest published buffer
+     *
+     * @return true if there was a new buffer
+     */
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        readIndex = middle.getAndSet(readIndex) & INDEX;
+        return true;
+    }
+
+    /**
+     * Only called by the reader, the buffer swapped in by the last {@link #update()}. It is reused
+     * by the writer after the next update, so don't hold on to it.
+     */
+    @SuppressWarnings("unchecked")
+    public T getReadBuffer() {
+        return (T) buffers[readIndex];
+    }
+}
@@ -3,8 +3,11 @@ package frc.spectrumLib.vision;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Pose3d;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.spectrumLib.LoopEpoch;
 import frc.spectrumLib.vision.LimelightHelpers.LimelightResults;
+import frc.spectrumLib.vision.LimelightHelpers.PoseEstimate;
 import frc.spectrumLib.vision.LimelightHelpers.RawFiducial;
 import java.text.DecimalFormat;
 import lombok.Getter;
@@ -63,6 +66,61 @@ public class Limelight {
     @Getter @Setter private String logStatus = "";
     @Getter @Setter private String tagStatus = "";
 
+    /* JSON results are parsed off of the robot loop, started by the first getLatestResults() */
+    private LimelightIngest ingest;
+
+    /* Pose estimates, read at most once per loop and only when the camera sends a new frame */
+    private static final PoseEstimate NO_ESTIMATE =
+            new PoseEstimate(new Pose2d(), 0, 0, 0, 0, 0, 0, new RawFiducial[0]);
+    private final PoseSnapshot megaTag1 = new PoseSnapshot("botpose_wpiblue");
+    private final PoseSnapshot megaTag2 = new PoseSnapshot("botpose_orb_wpiblue");
+
+    /**
+     * The latest PoseEstimate from one of the botpose entries. It is only rebuilt when the entry's
+     * NetworkTables timestamp changes, and checked for changes once per robot loop. The estimate is
+     * shared by every accessor and must not be modified.
+     */
+    private class PoseSnapshot {
+        private final String entryName;
+        private NetworkTableEntry entry;
+        private PoseEstimate estimate = NO_ESTIMATE;
+        private long lastChange = 0;
+        private long epoch = -1;
+        private boolean newFrame = false;
+
+        private PoseSnapshot(String entryName) {
+            this.entryName = entryName;
+        }
+
+        private PoseEstimate get() {
+            update();
+            return estimate;
+        }
+
+        private boolean hasNewFrame() {
+            update();
+            return newFrame;
+        }
+
+        private void update() {
+            long current = LoopEpoch.get();
+            if (current == epoch) {
+                return;
+            }
+            epoch = current;
+            if (entry == null) {
+                entry = LimelightHelpers.getLimelightNTTableEntry(config.getName(), entryName);
+            }
+
+            long change = entry.getLastChange();
+            newFrame = change != lastChange;
+            if (newFrame) {
+                lastChange = change;
+                estimate = LimelightHelpers.getBotPoseEstimate(config.getName(), entryName);
+            }
+        }
+    }
+
     public Limelight(LimelightConfig config) {
         this.config = config;
     }
@@ -131,11 +189,9 @@ public class Limelight {
         if (!isAttached()) {
             return 0;
         }
-        return LimelightHelpers.getBotPoseEstimate_wpiBlue(config.getName()).tagCount;
-
-        // if (retrieveJSON() == null) return 0;
+        return megaTag1.get().tagCount;
 
-        // return retrieveJSON().targetingResults.targets_Fiducials.length;
+        // return getLatestResults().targets_Fiducials.length;
     }
 
     /**
@@ -172,8 +228,7 @@ public class Limelight {
         if (!isAttached()) {
             return new Pose2d();
         }
-        return LimelightHelpers.getBotPoseEstimate_wpiBlue_MegaTag2(config.name)
-                .pose; // 2024: all alliances use blue as 0,0
+        return megaTag2.get().pose; // 2024: all alliances use blue as 0,0
     }
 
     public boolean hasAccuratePose() {
@@ -188,13 +243,53 @@ public class Limelight {
         if (!isAttached()) {
             return 0;
         }
-        double x = LimelightHelpers.getCameraPose3d_TargetSpace(config.name).getX();
-        double y = LimelightHelpers.getCameraPose3d_TargetSpace(config.name).getZ();
-        return Math.sqrt(Math.pow(x, 2) + Math.pow(y, 2));
+        Pose3d cameraPose = LimelightHelpers.getCameraPose3d_TargetSpace(config.name);
+        return Math.hypot(cameraPose.getX(), cameraPose.getZ());
     }
 
     public RawFiducial[] getRawFiducial() {
-        return LimelightHelpers.getBotPoseEstimate_wpiBlue(config.name).rawFiducials;
+        if (!isAttached()) {
+            return NO_ESTIMATE.rawFiducials;
+        }
+        return megaTag1.get().rawFiducials;
+    }
+
+    /** @return the MEGATAG1 pose estimate for this loop, shared so don't modify it */
+    public PoseEstimate getRawPoseEstimate() {
+        if (!isAttached()) {
+            return NO_ESTIMATE;
+        }
+        return megaTag1.get();
+    }
+
+    /** @return the MEGATAG2 pose estimate for this loop, shared so don't modify it */
+    public PoseEstimate getMegaPoseEstimate() {
+        if (!isAttached()) {
+            return NO_ESTIMATE;
+        }
+        return megaTag2.get();
+    }
+
+    /**
+     * @return true if the camera sent a new MEGATAG1 frame since the last loop, false if this
+     *     loop's estimate is the same frame as last loop's
+     */
+    public boolean hasNewFrame() {
+        if (!isAttached()) {
+            return false;
+        }
+        return megaTag1.hasNewFrame();
+    }
+
+    /**
+     * @return true if the camera sent a new MEGATAG2 frame since the last loop, false if this
+     *     loop's estimate is the same frame as last loop's
+     */
+    public boolean hasNewMegaPoseFrame() {
+        if (!isAttached()) {
+            return false;
+        }
+        return megaTag2.hasNewFrame();
     }
 
     /**
@@ -206,7 +301,7 @@ public class Limelight {
         if (!isAttached()) {
             return 0;
         }
-        return LimelightHelpers.getBotPoseEstimate_wpiBlue(config.getName()).timestampSeconds;
+        return megaTag1.get().timestampSeconds;
     }
 
     /**
@@ -218,8 +313,7 @@ public class Limelight {
         if (!isAttached()) {
             return 0;
         }
-        return LimelightHelpers.getBotPoseEstimate_wpiBlue_MegaTag2(config.getName())
-                .timestampSeconds;
+        return megaTag2.get().timestampSeconds;
     }
 
     /**
@@ -268,12 +362,26 @@ public class Limelight {
      * Utility Wrappers
      */
 
-    /** @return The latest LL results as a LimelightResults object. */
-    @SuppressWarnings("unused")
-    private LimelightResults retrieveJSON() {
-        return LimelightHelpers.getLatestResults(config.name);
+    /**
+     * The first call starts the ingest thread, so JSON is only parsed for Limelights whose results
+     * are used. Empty until the first frame is parsed.
+     *
+     * @return The latest LL results parsed by the ingest thread, the same object for the whole
+     *     robot loop. Don't keep it past the end of the loop, it gets reused.
+     */
+    public LimelightResults getLatestResults() {
+        if (!isAttached()) {
+            return EMPTY_RESULTS;
+        }
+        if (ingest == null) {
+            ingest = new LimelightIngest(config.getName());
+            ingest.start();
+        }
+        return ingest.getLatestResults();
     }
 
+    private static final LimelightResults EMPTY_RESULTS = new LimelightResults();
+
     /** @param pipelineIndex use pipeline indexes in {@link VisionConfig} */
     public void setLimelightPipeline(int pipelineIndex) {
         if (!isAttached()) {
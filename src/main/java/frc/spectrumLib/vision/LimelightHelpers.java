@@ -359,6 +359,30 @@ public class LimelightHelpers {
             targets_Detector = new LimelightTarget_Detector[0];
             targets_Barcode = new LimelightTarget_Barcode[0];
         }
+
+        /**
+         * Clear the fields that may be missing from a JSON dump, so a reused results object
+         * doesn't keep values from an older frame
+         */
+        void reset() {
+            error = null;
+            valid = false;
+            targets_Retro = NO_RETRO;
+            targets_Fiducials = NO_FIDUCIALS;
+            targets_Classifier = NO_CLASSIFIERS;
+            targets_Detector = NO_DETECTIONS;
+            targets_Barcode = NO_BARCODES;
+        }
+
+        private static final LimelightTarget_Retro[] NO_RETRO = new LimelightTarget_Retro[0];
+        private static final LimelightTarget_Fiducial[] NO_FIDUCIALS =
+                new LimelightTarget_Fiducial[0];
+        private static final LimelightTarget_Classifier[] NO_CLASSIFIERS =
+                new LimelightTarget_Classifier[0];
+        private static final LimelightTarget_Detector[] NO_DETECTIONS =
+                new LimelightTarget_Detector[0];
+        private static final LimelightTarget_Barcode[] NO_BARCODES =
+                new LimelightTarget_Barcode[0];
     }
 
     public static class RawFiducial {
@@ -503,7 +527,7 @@ public class LimelightHelpers {
         return inData[position];
     }
 
-    private static PoseEstimate getBotPoseEstimate(String limelightName, String entryName) {
+    static PoseEstimate getBotPoseEstimate(String limelightName, String entryName) {
         var poseEntry = LimelightHelpers.getLimelightNTTableEntry(limelightName, entryName);
         var poseArray = poseEntry.getDoubleArray(new double[0]);
         var pose = toPose2D(poseArray);
@@ -1143,7 +1167,10 @@ public class LimelightHelpers {
         return false;
     }
 
-    /** Parses Limelight's JSON results dump into a LimelightResults Object */
+    /**
+     * Parses Limelight's JSON results dump into a LimelightResults Object. This parses on the
+     * calling thread, in the robot loop use {@link Limelight#getLatestResults()} instead.
+     */
     public static LimelightResults getLatestResults(String limelightName) {
 
         long start = System.nanoTime();
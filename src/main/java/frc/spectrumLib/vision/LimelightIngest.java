@@ -0,0 +1,162 @@
+package frc.spectrumLib.vision;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wpi.first.networktables.NetworkTableEvent;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTableListenerPoller;
+import edu.wpi.first.networktables.StringSubscriber;
+import edu.wpi.first.util.WPIUtilJNI;
+import frc.spectrumLib.LoopEpoch;
+import frc.spectrumLib.Telemetry;
+import frc.spectrumLib.util.Histogram;
+import frc.spectrumLib.util.TripleBuffer;
+import frc.spectrumLib.vision.LimelightHelpers.LimelightResults;
+import java.io.IOException;
+import java.util.EnumSet;
+import lombok.Getter;
+
+/**
+ * Parses a Limelight's JSON dump on its own thread instead of the robot loop. The thread sleeps
+ * until NetworkTables gets a new value on the "json" topic, parses it into one of three {@link
+ * LimelightResults} objects and hands it to the robot loop through a {@link TripleBuffer}. {@link
+ * #getLatestResults()} only swaps in the newest results, so it never blocks on parsing.
+ *
+ * <p>Only the results objects are reused, Jackson still allocates new target arrays and targets
+ * for every frame. That garbage is made on this thread, not the robot loop's.
+ */
+public class LimelightIngest {
+    private static final int PUBLISH_PERIOD_FRAMES = 50;
+
+    private final String name;
+    private final StringSubscriber jsonSub;
+    private final NetworkTableListenerPoller poller;
+    private final ObjectMapper mapper = newMapper();
+    private final TripleBuffer<LimelightResults> results =
+            new TripleBuffer<>(LimelightResults::new);
+    private final Thread thread;
+    private volatile boolean running = false;
+
+    // Only touched by the ingest thread
+    private final Histogram parseMs = new Histogram(0.05, 100, 4);
+    private final String p50Key, p99Key, maxKey, errorsKey;
+    private int frames = 0;
+    private int errors = 0;
+
+    // Only touched by the robot loop
+    private long lastEpoch = -1;
+    @Getter private long framesReceived = 0;
+
+    /** @param name name of the Limelight's NetworkTable */
+    public LimelightIngest(String name) {
+        this.name = LimelightHelpers.sanitizeName(name);
+        jsonSub =
+                NetworkTableInstance.getDefault()
+                        .getTable(this.name)
+                        .getStringTopic("json")
+                        .subscribe("");
+        poller = new NetworkTableListenerPoller(NetworkTableInstance.getDefault());
+        poller.addListener(jsonSub, EnumSet.of(NetworkTableEvent.Kind.kValueAll));
+
+        String key = "Vision/" + this.name + "/jsonParse";
+        p50Key = key + "/p50Ms";
+        p99Key = key + "/p99Ms";
+        maxKey = key + "/maxMs";
+        errorsKey = key + "/errors";
+
+        thread = new Thread(this::run, this.name + "Ingest");
+        thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * The newest complete results. The same object is returned for the whole robot loop, don't keep
+     * it past the end of the loop since it gets reused.
+     */
+    public LimelightResults getLatestResults() {
+        long epoch = LoopEpoch.get();
+        if (epoch != lastEpoch) {
+            lastEpoch = epoch;
+            if (results.update()) {
+                framesReceived++;
+            }
+        }
+        return results.getReadBuffer();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                // Wake up at least every 100ms so stop() is seen
+                if (WPIUtilJNI.waitForObjectTimeout(poller.getHandle(), 0.1)) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            // Only the newest value matters, skip any older ones still in the queue
+            NetworkTableEvent[] events = poller.readQueue();
+            String json = null;
+            for (int i = events.length - 1; i >= 0; i--) {
+                if (events[i].valueData != null) {
+                    json = events[i].valueData.value.getString();
+                    break;
+                }
+            }
+            if (json == null || json.isEmpty()) {
+                continue;
+            }
+            parse(json);
+        }
+        poller.close();
+        jsonSub.close();
+        Telemetry.print(thread.getName() + " stopped");
+    }
+
+    private void parse(String json) {
+        long start = System.nanoTime();
+        LimelightResults result = results.getWriteBuffer();
+        try {
+            parseInto(mapper, result, json);
+        } catch (IOException e) {
+            result.error = "lljson error: " + e.getMessage();
+            errors++;
+        }
+        double millis = (System.nanoTime() - start) * .000001;
+        result.latency_jsonParse = millis;
+        results.publish();
+
+        parseMs.record(millis);
+        frames++;
+        if (frames >= PUBLISH_PERIOD_FRAMES) {
+            Telemetry.log(p50Key, parseMs.getPercentile(0.5));
+            Telemetry.log(p99Key, parseMs.getPercentile(0.99));
+            Telemetry.log(maxKey, parseMs.getMax());
+            Telemetry.log(errorsKey, errors);
+            parseMs.reset();
+            frames = 0;
+        }
+    }
+
+    /** @return a mapper set up the way the ingest thread parses, give each thread its own */
+    public static ObjectMapper newMapper() {
+        return new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /** Parse a JSON dump into a reused results object, the same way the ingest thread does */
+    public static void parseInto(ObjectMapper mapper, LimelightResults result, String json)
+            throws IOException {
+        result.reset();
+        mapper.readerForUpdating(result).readValue(json);
+    }
+}